@@ -1,13 +1,15 @@
 package com.github.zxh.classpy.classfile;
 
-import com.github.zxh.classpy.classfile.attribute.AttributeInfo;
-import com.github.zxh.classpy.classfile.bytecode.Instruction;
+import com.github.zxh.classpy.classfile.attribute.CodeAttribute;
+import com.github.zxh.classpy.classfile.attribute.ExceptionsAttribute;
+import com.github.zxh.classpy.classfile.attribute.LocalVariableTableAttribute;
+import com.github.zxh.classpy.classfile.bytecode.BytecodeCursor;
 import com.github.zxh.classpy.classfile.constant.ConstantClassInfo;
-import com.github.zxh.classpy.classfile.constant.ConstantNameAndTypeInfo;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.datatype.Table;
 import com.github.zxh.classpy.classfile.datatype.U2;
 import com.github.zxh.classpy.classfile.datatype.U2AccessFlags;
+import com.github.zxh.classpy.classfile.datatype.U2Array;
 import com.github.zxh.classpy.classfile.datatype.U2CpIndex;
 import com.github.zxh.classpy.classfile.jvm.AccessFlagType;
 import com.github.zxh.classpy.classfile.jvm.AccessFlags;
@@ -37,47 +39,98 @@ ClassFile {
 */
 public class ClassFile extends ClassFileComponent {
 
-    public static final Map<Character, String> paramMap = new HashMap<>();
+    public static final Map<Character, String> paramMap;
 
     static {
-        paramMap.put('B', "byte");
-        paramMap.put('C', "char");
-        paramMap.put('D', "double");
-        paramMap.put('F', "float");
-        paramMap.put('I', "int");
-        paramMap.put('J', "long");
-        paramMap.put('S', "short");
-        paramMap.put('Z', "boolean");
+        Map<Character, String> map = new HashMap<>();
+        map.put('B', "byte");
+        map.put('C', "char");
+        map.put('D', "double");
+        map.put('F', "float");
+        map.put('I', "int");
+        map.put('J', "long");
+        map.put('S', "short");
+        map.put('Z', "boolean");
+        paramMap = Collections.unmodifiableMap(map);
     }
 
-    {
-        U2 cpCount = new U2();
-
-        u4hex("magic");
-        u2("minor_version");
-        u2("major_version");
-        add("constant_pool_count", cpCount);
-        add("constant_pool", new ConstantPool(cpCount));
-        u2af("access_flags", AccessFlagType.AF_CLASS);
-        u2cp("this_class");
-        u2cp("super_class");
-        u2("interfaces_count");
-        table("interfaces", U2CpIndex.class);
-        u2("fields_count");
-        table("fields", FieldInfo.class);
-        u2("methods_count");
-        table("methods", MethodInfo.class);
-        u2("attributes_count");
-        table("attributes", AttributeInfo.class);
+    private static final Layout LAYOUT = Layout.builder()
+            .u4hex    ("magic")
+            .u2       ("minor_version")
+            .u2       ("major_version")
+            .u2       ("constant_pool_count")
+            .dependent("constant_pool", ConstantPool::new)
+            .u2af     ("access_flags", AccessFlagType.AF_CLASS)
+            .u2cp     ("this_class")
+            .u2cp     ("super_class")
+            .u2       ("interfaces_count")
+            .u2array  ("interfaces", U2CpIndex::new)
+            .u2       ("fields_count")
+            .table    ("fields", FieldInfo::new)
+            .u2       ("methods_count")
+            .table    ("methods", MethodInfo::new)
+            .u2       ("attributes_count")
+            .attributes("attributes")
+            .build();
+
+    private static final int MINOR_VERSION = LAYOUT.indexOf("minor_version");
+    private static final int MAJOR_VERSION = LAYOUT.indexOf("major_version");
+    private static final int CONSTANT_POOL = LAYOUT.indexOf("constant_pool");
+    private static final int ACCESS_FLAGS = LAYOUT.indexOf("access_flags");
+    private static final int THIS_CLASS = LAYOUT.indexOf("this_class");
+    private static final int SUPER_CLASS = LAYOUT.indexOf("super_class");
+    private static final int INTERFACES = LAYOUT.indexOf("interfaces");
+    private static final int FIELDS = LAYOUT.indexOf("fields");
+    private static final int METHODS = LAYOUT.indexOf("methods");
+    private static final int ATTRIBUTES = LAYOUT.indexOf("attributes");
+
+    public ClassFile() {
+        super(LAYOUT);
     }
 
     public ConstantPool getConstantPool() {
-        return (ConstantPool) super.get("constant_pool");
+        return (ConstantPool) super.get(CONSTANT_POOL);
+    }
+
+    public U2 minorVersion() {
+        return (U2) super.get(MINOR_VERSION);
+    }
+
+    public U2 majorVersion() {
+        return (U2) super.get(MAJOR_VERSION);
+    }
+
+    public U2AccessFlags accessFlags() {
+        return (U2AccessFlags) super.get(ACCESS_FLAGS);
+    }
+
+    public U2CpIndex thisClass() {
+        return (U2CpIndex) super.get(THIS_CLASS);
+    }
+
+    public U2CpIndex superClass() {
+        return (U2CpIndex) super.get(SUPER_CLASS);
+    }
+
+    public U2Array interfaces() {
+        return (U2Array) super.get(INTERFACES);
+    }
+
+    public Table fields() {
+        return (Table) super.get(FIELDS);
+    }
+
+    public Table methods() {
+        return (Table) super.get(METHODS);
+    }
+
+    public Table attributes() {
+        return (Table) super.get(ATTRIBUTES);
     }
 
     public String generatePackage() {
         try {
-            String thisClassDesc = super.get("this_class").getDesc();
+            String thisClassDesc = thisClass().getDesc();
             if (thisClassDesc.lastIndexOf("/") < 0) {
                 return null;
             }
@@ -90,13 +143,10 @@ public class ClassFile extends ClassFileComponent {
 
     public String generateImport() {
         StringBuilder importCode = new StringBuilder();
-        String thisClassDesc = super.get("this_class").getDesc();
-        List<FileComponent> components = this.getConstantPool().getComponents();
-        for (FileComponent component : components) {
-            if (component instanceof ConstantClassInfo) {
-                if (!thisClassDesc.contains(component.getDesc()) && !component.getDesc().contains("java/lang/") && !component.getDesc().equals("java/io/PrintStream")) {
-                    importCode.append("import ").append(component.getDesc().replaceAll("/", ".")).append(";").append("\n");
-                }
+        String thisClassDesc = thisClass().getDesc();
+        for (ConstantClassInfo component : getConstantPool().getConstants(ConstantClassInfo.class)) {
+            if (!thisClassDesc.contains(component.getDesc()) && !component.getDesc().contains("java/lang/") && !component.getDesc().equals("java/io/PrintStream")) {
+                importCode.append("import ").append(component.getDesc().replaceAll("/", ".")).append(";").append("\n");
             }
         }
 
@@ -111,7 +161,7 @@ public class ClassFile extends ClassFileComponent {
     public String generateClassHead() {
         StringBuilder javaCode = new StringBuilder();
 
-        U2AccessFlags af = (U2AccessFlags) super.get("access_flags");
+        U2AccessFlags af = accessFlags();
         String afDesc = af.getDesc();
         if (afDesc.contains(AccessFlags.ACC_PUBLIC.name())) {
             javaCode.append("public ");
@@ -135,25 +185,25 @@ public class ClassFile extends ClassFileComponent {
         } else {
             javaCode.append("class ");
         }
-        String thisClassDesc = super.get("this_class").getDesc();
+        String thisClassDesc = thisClass().getDesc();
         javaCode.append(thisClassDesc.substring(thisClassDesc.lastIndexOf("/") + 1));
 
-        String superClass = get("super_class").getDesc();
+        String superClass = superClass().getDesc();
         if (!superClass.contains("java/lang/Object")) {
             javaCode.append(" extends ").append(superClass.substring(superClass.lastIndexOf("/") + 1));
         }
 
-        if (Integer.parseInt(super.get("interfaces_count").getDesc()) > 0) {
+        U2Array interfaces = interfaces();
+        if (interfaces.size() > 0) {
             javaCode.append(" implements ");
         }
 
-        Table interfaceTable = (Table) super.get("interfaces");
-        for (int i = 0; i < interfaceTable.getComponents().size(); i++) {
-            String interfaceName = interfaceTable.getComponents().get(i).getDesc();
+        for (int i = 0; i < interfaces.size(); i++) {
+            String interfaceName = getOperandDesc(getConstantPool(), interfaces.getValue(i));
             javaCode.append(interfaceName.substring(interfaceName.lastIndexOf("/") + 1));
 
 
-            if (i != interfaceTable.getComponents().size() - 1) {
+            if (i != interfaces.size() - 1) {
                 javaCode.append(",");
             }
         }
@@ -163,7 +213,7 @@ public class ClassFile extends ClassFileComponent {
 
     public String generateMethod() {
         StringBuilder methodString = new StringBuilder();
-        List<FileComponent> components = this.get("methods").getComponents();
+        List<FileComponent> components = methods().getComponents();
         for (FileComponent component : components) {
             MethodInfo method = (MethodInfo) component;
 
@@ -181,32 +231,27 @@ public class ClassFile extends ClassFileComponent {
     }
 
     private void generateMethodBody(StringBuilder methodString, MethodInfo method) {
-        List<FileComponent> info = method.getComponents();
         if ("<init>".equals(method.getDesc())) {
             return;
         }
-        Table attributes = (Table) info.get(4);
+        Table attributes = method.attributes();
         List<String> paramNames = getParamNames(attributes.getComponents());
         for (FileComponent attribute : attributes.getComponents()) {
-            if (attribute.getName().contains("Code")) {
-                List<FileComponent> codeList = attribute.getComponents().get(5).getComponents();
-                //List localVariableTable = attribute.getComponents().get(9).getComponents().get(1).getComponents().get(3).getComponents();
+            if (attribute instanceof CodeAttribute) {
+                BytecodeCursor cursor = ((CodeAttribute) attribute).code().cursor();
 
+                ConstantPool cp = getConstantPool();
                 Stack<Object> opStack = new Stack<>();
                 paramNames.add(0, "this");
-                for (FileComponent code : codeList) {
-                    Instruction icode = ((Instruction) code);
-                    String opCode = icode.getOpcode().name();
+                while (cursor.next()) {
+                    String opCode = cursor.getOpcode().name();
 
                     if ("aloda_0".equals(opCode)) {
                         opStack.push(paramNames.get(0));
                     } else if ("invokespecial".equals(opCode)) {
-                        int methodRefIndex = ((U2CpIndex) icode.getComponents().get(1)).getValue();
-
-                        FileComponent methodRefInfo = getConstantPool().getComponents().get(methodRefIndex - 1);
-                        ConstantNameAndTypeInfo nameAndTypeInfo = (ConstantNameAndTypeInfo) getConstantPool().getComponents().get(((U2) methodRefInfo.getComponents().get(2)).getValue() - 1);
+                        int methodRefIndex = cursor.cpIndex();
 
-                        String typeDescriptor = getConstantPool().getComponents().get(((U2) nameAndTypeInfo.getComponents().get(2)).getValue() - 1).getDesc();
+                        String typeDescriptor = cp.getMemberRef(methodRefIndex).descriptor;
                         int methodParameterSize = getParamSize(typeDescriptor);
                         Object targetClassName;
                         Object parameterNames[] = new Object[methodParameterSize];
@@ -236,7 +281,7 @@ public class ClassFile extends ClassFileComponent {
 
                         opStack.push(line.toString());
                     } else if ("_new".equals(opCode)) {
-                        String classDesc = icode.getComponents().get(1).getDesc();
+                        String classDesc = getOperandDesc(cp, cursor.cpIndex());
                         opStack.push(classDesc.substring(classDesc.lastIndexOf("/") + 1));
                     } else if ("dup".equals(opCode)) {
                         if (opStack.size() > 0) {
@@ -246,12 +291,9 @@ public class ClassFile extends ClassFileComponent {
 //                            opStack.push(top);
                         }
                     } else if ("invokevirtual".equals(opCode)) {
-                        int methodRefIndex = ((U2CpIndex) icode.getComponents().get(1)).getValue();
-
-                        FileComponent methodRefInfo = getConstantPool().getComponents().get(methodRefIndex - 1);
-                        ConstantNameAndTypeInfo nameAndTypeInfo = (ConstantNameAndTypeInfo) getConstantPool().getComponents().get(((U2) methodRefInfo.getComponents().get(2)).getValue() - 1);
+                        int methodRefIndex = cursor.cpIndex();
 
-                        String typeDescriptor = getConstantPool().getComponents().get(((U2) nameAndTypeInfo.getComponents().get(2)).getValue() - 1).getDesc();
+                        String typeDescriptor = cp.getMemberRef(methodRefIndex).descriptor;
                         int methodParameterSize = getParamSize(typeDescriptor);
                         Object targetClassName = "";
                         Object parameterNames[] = new Object[methodParameterSize];
@@ -265,7 +307,7 @@ public class ClassFile extends ClassFileComponent {
                             targetClassName = opStack.pop();
 
                         StringBuilder line = new StringBuilder();
-                        String methodDesc = icode.getComponents().get(1).getDesc();
+                        String methodDesc = getOperandDesc(cp, cursor.cpIndex());
                         line.append(targetClassName).append(".").append(methodDesc.substring(methodDesc.lastIndexOf(".") + 1)).append("(");
                         for (int x = 0; x < methodParameterSize; x++) {
                             line.append(parameterNames[x]);
@@ -277,7 +319,8 @@ public class ClassFile extends ClassFileComponent {
 
                         opStack.push(line.toString());
                     } else if ("ldc".equals(opCode)) {
-                        opStack.push("\"" + icode.getComponents().get(1).getDesc().substring(icode.getComponents().get(1).getDesc().indexOf(">") + 1) + "\"");
+                        String constDesc = getOperandDesc(cp, cursor.cpIndex());
+                        opStack.push("\"" + constDesc.substring(constDesc.indexOf(">") + 1) + "\"");
                     } else if (opCode.contains("iload")) {
                         String index = opCode.substring(opCode.indexOf("_") + 1);
                         opStack.push(paramNames.get(Integer.parseInt(index)));
@@ -318,13 +361,14 @@ public class ClassFile extends ClassFileComponent {
                         int index = Integer.parseInt(opCode.substring(opCode.indexOf("_") + 1));
                         opStack.push(paramNames.get(index));
                     } else if ("ireturn".equals(opCode) || "_return".equals(opCode) || "areturn".equals(opCode)) {
-                        if (method.getComponents().get(2).getDesc().toCharArray()[method.getComponents().get(2).getDesc().indexOf(")") + 1] != 'V') {
+                        String methodDescriptor = method.descriptorIndex().getDesc();
+                        if (methodDescriptor.charAt(methodDescriptor.indexOf(")") + 1) != 'V') {
                             Object result = opStack.pop();
                             opStack.push("return " + result);
                         }
-                    } else if ("getstatic".equals(opCode) || "pop".equals(opCode)) {
+                    } else if ("getstatic".equals(opCode)) {
                         //TODO
-                        String staticDesc = icode.getComponents().get(1).getDesc();
+                        String staticDesc = getOperandDesc(cp, cursor.cpIndex());
                         opStack.push(staticDesc.substring(staticDesc.lastIndexOf("/") + 1));
                     } else {
                         throw new RuntimeException("undefined instruct: " + opCode);
@@ -339,6 +383,11 @@ public class ClassFile extends ClassFileComponent {
         }
     }
 
+    // same as the desc of U1CpIndex and U2CpIndex operands
+    private static String getOperandDesc(ConstantPool cp, int index) {
+        return index > 0 ? "#" + index + "->" + cp.getConstantDesc(index) : "#" + index;
+    }
+
     private int getParamSize(String typeDesc) {
         String pms = typeDesc.substring(typeDesc.indexOf("(") + 1, typeDesc.lastIndexOf(")"));
         int i = 0;
@@ -366,8 +415,7 @@ public class ClassFile extends ClassFileComponent {
 
     private void generateMethodHead(StringBuilder methodString, MethodInfo method) {
         if (!"<init>".equals(method.getDesc())) {
-            List<FileComponent> info = method.getComponents();
-            String access = info.get(0).getDesc();
+            String access = method.accessFlags().getDesc();
             if (access.contains(AccessFlags.ACC_PUBLIC.name())) {
                 methodString.append("public ");
             } else if (access.contains(AccessFlags.ACC_PRIVATE.name())) {
@@ -388,7 +436,7 @@ public class ClassFile extends ClassFileComponent {
                 methodString.append("final ");
             }
 
-            String methodDsec = info.get(2).getDesc();
+            String methodDsec = method.descriptorIndex().getDesc();
 
             String returnType = methodDsec.substring(methodDsec.lastIndexOf(")") + 1);
 
@@ -419,7 +467,7 @@ public class ClassFile extends ClassFileComponent {
             char[] parray = params.toCharArray();
             int i = 0;
 
-            List<FileComponent> attributes = info.get(4).getComponents();
+            List<FileComponent> attributes = method.attributes().getComponents();
             List<String> paramNames = getParamNames(attributes);
 
 
@@ -448,14 +496,12 @@ public class ClassFile extends ClassFileComponent {
 
             methodString.append(")");
 
-            Table sattributes = (Table) info.get(4);
-
-            for (FileComponent attribute : sattributes.getComponents()) {
-                if (attribute.getName().contains("Exceptions")) {
+            for (FileComponent attribute : method.attributes().getComponents()) {
+                if (attribute instanceof ExceptionsAttribute) {
                     methodString.append(" throws ");
-                    Table exceptionTable = (Table) attribute.getComponents().get(3);
-                    for (FileComponent exception : exceptionTable.getComponents()) {
-                        String exceptionClass = exception.getDesc();
+                    U2Array exceptionTable = ((ExceptionsAttribute) attribute).exceptionIndexTable();
+                    for (int x = 0; x < exceptionTable.size(); x++) {
+                        String exceptionClass = getOperandDesc(getConstantPool(), exceptionTable.getValue(x));
                         methodString.append(exceptionClass.substring(exceptionClass.lastIndexOf("/") + 1)).append(",");
                     }
                 }
@@ -472,8 +518,8 @@ public class ClassFile extends ClassFileComponent {
     private List<String> getParamNames(List<FileComponent> attributes) {
         List<String> paramNames = new ArrayList<>();
         for (FileComponent attribute : attributes) {
-            if (attribute.getName().contains("Code")) {
-                List<FileComponent> variableTable = attribute.getComponents().get(9).getComponents().get(1).getComponents().get(3).getComponents();
+            if (attribute instanceof CodeAttribute) {
+                List<FileComponent> variableTable = getLocalVariableTable((CodeAttribute) attribute);
                 for (FileComponent fileComponent : variableTable) {
                     String name = fileComponent.getDesc().substring(0, fileComponent.getDesc().indexOf("("));
                     if (!"this".equals(name))
@@ -484,6 +530,15 @@ public class ClassFile extends ClassFileComponent {
         return paramNames;
     }
 
+    private List<FileComponent> getLocalVariableTable(CodeAttribute code) {
+        for (FileComponent attribute : code.attributes().getComponents()) {
+            if (attribute instanceof LocalVariableTableAttribute) {
+                return ((LocalVariableTableAttribute) attribute).localVariableTable().getComponents();
+            }
+        }
+        return Collections.emptyList();
+    }
+
     private int generateLparam(StringBuilder methodString, String params, int j) {
         String tmp = params.substring(j + 1, params.indexOf(";", j));
         String className = tmp.substring(tmp.lastIndexOf("/") + 1);
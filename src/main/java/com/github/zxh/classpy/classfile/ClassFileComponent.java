@@ -4,29 +4,72 @@ import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.datatype.*;
 import com.github.zxh.classpy.common.FileComponent;
 
+import java.util.function.Supplier;
+
 /**
  * Base class for all class file components.
  */
 public abstract class ClassFileComponent extends FileComponent {
 
+    private ConstantPool constantPool; // passed to postRead()
+
+    protected ClassFileComponent() {
+
+    }
+
+    /**
+     * Creates sub-components described by the layout.
+     * @param layout
+     */
+    protected ClassFileComponent(Layout layout) {
+        ClassFileComponent prev = null;
+        for (int i = 0; i < layout.size(); i++) {
+            prev = layout.create(i, prev);
+            this.add(layout.getName(i), prev);
+        }
+    }
+
+    /**
+     * Components of one class file label themselves under the lock of its
+     * constant pool, since their descs are looked up in the constant pool.
+     * @return
+     */
+    @Override
+    protected Object getLabelLock() {
+        return constantPool != null ? constantPool : this;
+    }
+
     /**
      * Reads content, records offset and length.
      * @param reader
      */
-    @SuppressWarnings("Duplicates")
     public final void read(ClassFileReader reader) {
+        if (reader.isTrusted()) {
+            readAndRecord(reader);
+            return;
+        }
         try {
-            int offset = reader.getPosition();
-            readContent(reader);
-            int length = reader.getPosition() - offset;
-            super.setOffset(offset);
-            super.setLength(length);
+            readAndRecord(reader);
         } catch (Exception e) {
             System.out.println("error parsing: " + getClass());
             throw e;
         }
     }
 
+    private void readAndRecord(ClassFileReader reader) {
+        int offset = reader.getPosition();
+        constantPool = reader.getConstantPool();
+        try {
+            reader.enterComponent();
+            readContent(reader);
+        } finally {
+            reader.exitComponent();
+        }
+        int length = reader.getPosition() - offset;
+        super.setOffset(offset);
+        super.setLength(length);
+    }
+
     /**
      * Reads content using ClassFileReader.
      * @param reader
@@ -37,14 +80,28 @@ public abstract class ClassFileComponent extends FileComponent {
         }
     }
 
+    /**
+     * Sets name and desc using constant pool. Called lazily, the first time
+     * name or desc of this component is needed.
+     * @param cp the constant pool, null for components read before it
+     */
     protected void postRead(ConstantPool cp) {
 
     }
 
+    @Override
+    protected final void loadLabel() {
+        postRead(constantPool);
+    }
+
     protected int getUInt(String name) {
         return ((UInt) get(name)).getValue();
     }
 
+    protected final int getUInt(int index) {
+        return ((UInt) get(index)).getValue();
+    }
+
     protected final void u1(String name) {
         this.add(name, new U1());
     }
@@ -74,9 +131,9 @@ public abstract class ClassFileComponent extends FileComponent {
     }
 
     protected final void table(String name,
-                               Class<? extends ClassFileComponent> entryClass) {
+                               Supplier<? extends ClassFileComponent> entrySupplier) {
         UInt length = (UInt) getComponents().get(getComponents().size() - 1);
-        Table table = new Table(length, entryClass);
+        Table table = new Table(length, entrySupplier);
         this.add(name, table);
     }
 
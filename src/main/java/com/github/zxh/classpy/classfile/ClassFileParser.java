@@ -1,23 +1,122 @@
 package com.github.zxh.classpy.classfile;
 
-import com.github.zxh.classpy.classfile.constant.ConstantPool;
-import com.github.zxh.classpy.common.FileComponent;
+import com.github.zxh.classpy.classfile.datatype.UInt;
+import com.github.zxh.classpy.common.ComponentArena;
 import com.github.zxh.classpy.common.FileParser;
+import com.github.zxh.classpy.common.SymbolTable;
 
+import java.nio.ByteBuffer;
+
+/**
+ * Parses class files. Once configured, a parser can be shared by many
+ * threads, since each parse uses a reader of its own. The parsed trees are
+ * safe to read from many threads, lazily parsed parts are built only once.
+ */
 public class ClassFileParser implements FileParser {
 
+    private boolean lazyAttributes;
+    private SymbolTable symbolTable;
+    private boolean trusted;
+    private ParseLimits limits;
+
+    /**
+     * If lazyAttributes is true, attribute bodies are skipped while parsing
+     * and only parsed the first time their components are requested.
+     * @param lazyAttributes
+     */
+    public void setLazyAttributes(boolean lazyAttributes) {
+        this.lazyAttributes = lazyAttributes;
+    }
+
+    /**
+     * Utf8 constants of all classes parsed (or scanned) by this parser are
+     * interned through symbolTable. Share one table between the parsers of
+     * a jar or session so that common names are kept only once.
+     * @param symbolTable null to keep the strings of each class apart
+     */
+    public void setSymbolTable(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * If trusted is true, the input is expected to be well formed (JDK
+     * classes, our own build output...), and is read without bounds checks
+     * and without error reporting for each component. This only speeds up
+     * parsing of byte arrays and heap buffers. Malformed input may fail
+     * with any exception, or be parsed into garbage.
+     * @param trusted
+     */
+    public void setTrusted(boolean trusted) {
+        this.trusted = trusted;
+    }
+
+    /**
+     * Limits for parsing untrusted input. Counts in the class file are
+     * always checked against the remaining bytes, with or without limits.
+     * @param limits null for no limits
+     */
+    public void setLimits(ParseLimits limits) {
+        this.limits = limits;
+    }
+
+    @Override
     public ClassFile parse(byte[] data) {
+        return parse(ByteBuffer.wrap(data));
+    }
+
+    @Override
+    public ClassFile parse(ByteBuffer data) {
+        ClassFileReader reader = newReader(data);
+        reader.setLazyAttributes(lazyAttributes);
+
         ClassFile cf = new ClassFile();
-        cf.read(new ClassFileReader(data));
-        postRead(cf, cf.getConstantPool());
+        cf.read(reader);
         return cf;
     }
 
-    private static void postRead(ClassFileComponent fc, ConstantPool cp) {
-        for (FileComponent c : fc.getComponents()) {
-            postRead((ClassFileComponent) c, cp);
-        }
-        fc.postRead(cp);
+    /**
+     * Read the signatures of the class without building the ClassFile tree.
+     * @param data
+     * @return
+     */
+    public ClassSummary scan(ByteBuffer data) {
+        return ClassSummary.scan(newReader(data));
+    }
+
+    public ClassSummary scan(byte[] data) {
+        return scan(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Walk the class file and push its structures to visitor,
+     * without building the ClassFile tree.
+     * @param data
+     * @param visitor
+     */
+    public void accept(ByteBuffer data, ClassFileVisitor visitor) {
+        new ClassFileWalker(newReader(data), visitor).walk();
+    }
+
+    /**
+     * Parse the class file and copy the tree into a ComponentArena, which
+     * retains far less heap than the ClassFile when many classes are kept open.
+     * @param data
+     * @param offHeap
+     * @return
+     */
+    public ComponentArena.Node parseCompact(ByteBuffer data, boolean offHeap) {
+        ClassFile cf = parse(data);
+        return ComponentArena.compact(cf,
+                c -> c instanceof UInt ? ((UInt) c).getValue() : 0,
+                offHeap);
+    }
+
+    private ClassFileReader newReader(ByteBuffer data) {
+        ClassFileReader reader = new ClassFileReader(data);
+        reader.setSymbolTable(symbolTable);
+        reader.setTrusted(trusted);
+        reader.setLimits(limits);
+        return reader;
     }
 
 }
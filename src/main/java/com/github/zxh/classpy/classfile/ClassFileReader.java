@@ -1,18 +1,97 @@
 package com.github.zxh.classpy.classfile;
 
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
+import com.github.zxh.classpy.classfile.jvm.Mutf8Decoder;
 import com.github.zxh.classpy.common.BytesReader;
+import com.github.zxh.classpy.common.ParseException;
+import com.github.zxh.classpy.common.SymbolTable;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Reader of one class file, with the options and state of one parse.
+ * Readers are not thread-safe.
+ */
 public class ClassFileReader extends BytesReader {
 
     private ConstantPool constantPool;
+    private boolean lazyAttributes;
+    private SymbolTable symbolTable;
+    private boolean trusted;
+    private ParseLimits limits; // null for no limits
+    private Budget budget; // shared with forks
+    private int depth;
+    private long enterTime; // when the outermost component being read was entered
 
     public ClassFileReader(byte[] data) {
         super(data, ByteOrder.BIG_ENDIAN);
     }
 
+    public ClassFileReader(ByteBuffer data) {
+        super(data, ByteOrder.BIG_ENDIAN);
+    }
+
+    private ClassFileReader(ClassFileReader other) {
+        super(other);
+        this.constantPool = other.constantPool;
+        this.lazyAttributes = other.lazyAttributes;
+        this.symbolTable = other.symbolTable;
+        this.trusted = other.trusted;
+        this.limits = other.limits;
+        this.budget = other.budget;
+    }
+
+    /**
+     * Creates a reader which shares bytes, constant pool, options and
+     * the budget of the limits with this reader, but starts reading at
+     * the given position.
+     * @param position
+     * @return
+     */
+    public ClassFileReader fork(int position) {
+        ClassFileReader reader = new ClassFileReader(this);
+        reader.setPosition(position);
+        return reader;
+    }
+
+    /**
+     * Decodes length bytes of modified UTF-8 at index,
+     * without changing position.
+     * @param index
+     * @param length
+     * @return
+     */
+    public String getMutf8(int index, int length) {
+        try {
+            return Mutf8Decoder.decodeMutf8(getBuffer(), index, length);
+        } catch (IOException e) {
+            throw new ParseException(e);
+        }
+    }
+
+    /**
+     * Same as getMutf8(), but the string is interned through the symbol
+     * table if there is one.
+     * @param index
+     * @param length
+     * @return
+     */
+    public String getSymbol(int index, int length) {
+        String str = getMutf8(index, length);
+        return symbolTable != null ? symbolTable.intern(str) : str;
+    }
+
+    public String readMutf8(int length) {
+        int position = getPosition();
+        String str = getMutf8(position, length);
+        setPosition(position + length);
+        return str;
+    }
+
     public ConstantPool getConstantPool() {
         return constantPool;
     }
@@ -21,4 +100,135 @@ public class ClassFileReader extends BytesReader {
         this.constantPool = constantPool;
     }
 
+    public boolean isTrusted() {
+        return trusted;
+    }
+
+    /**
+     * Trusted readers read the bytes unchecked if they can, and don't
+     * report which component failed to parse.
+     * @param trusted
+     */
+    public void setTrusted(boolean trusted) {
+        this.trusted = trusted;
+        setUnchecked(trusted);
+    }
+
+    public ParseLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Sets the limits checked while reading, with a new budget which is
+     * shared by this reader and its forks.
+     * @param limits null for no limits
+     */
+    public void setLimits(ParseLimits limits) {
+        this.limits = limits;
+        this.budget = limits != null ? new Budget() : null;
+        this.depth = 0;
+    }
+
+    /**
+     * Called before a component reads its content.
+     */
+    void enterComponent() {
+        if (limits == null) {
+            return;
+        }
+        if (depth == 0) {
+            enterTime = System.nanoTime();
+        }
+        if (++depth > limits.getMaxDepth()) {
+            throw new ParseException("Components nested too deep, limit: " + limits.getMaxDepth());
+        }
+        charge();
+    }
+
+    /**
+     * Called after a component has read its content, or failed to.
+     */
+    void exitComponent() {
+        if (limits != null && --depth == 0) {
+            budget.spentNanos.addAndGet(System.nanoTime() - enterTime);
+        }
+    }
+
+    /**
+     * Counts a component which is found while reading but created later,
+     * like an instruction found by the pc scan of Code, against the limits.
+     * Must be called while a component is being read.
+     */
+    public void chargeComponent() {
+        if (limits != null) {
+            charge();
+        }
+    }
+
+    private void charge() {
+        int count = budget.componentCount.incrementAndGet();
+        if (count > limits.getMaxComponents()) {
+            throw new ParseException("Too many components, limit: " + limits.getMaxComponents());
+        }
+        if ((count & 0xff) == 0
+                && limits.getTimeBudgetMillis() != Long.MAX_VALUE
+                && (budget.spentNanos.get() + System.nanoTime() - enterTime) / 1_000_000
+                        > limits.getTimeBudgetMillis()) {
+            throw new ParseException("Time budget exceeded: " + limits.getTimeBudgetMillis() + "ms");
+        }
+    }
+
+    /**
+     * Checks that count items of at least minSize bytes each can be read
+     * from the remaining bytes, before anything is allocated for them.
+     * @param name name of the count, for the error message
+     * @param count
+     * @param minSize
+     */
+    public void checkCount(String name, int count, int minSize) {
+        if (count < 0 || (long) count * minSize > remaining()) {
+            throw new ParseException("Invalid " + name + ": " + count
+                    + ", only " + remaining() + " bytes left");
+        }
+    }
+
+    /**
+     * Checks attribute_length against the remaining bytes and the limits.
+     * @param attributeLength
+     */
+    public void checkAttributeLength(int attributeLength) {
+        checkCount("attribute_length", attributeLength, 1);
+        if (limits != null && attributeLength > limits.getMaxAttributeLength()) {
+            throw new ParseException("Attribute too long: " + attributeLength
+                    + ", limit: " + limits.getMaxAttributeLength());
+        }
+    }
+
+    public boolean isLazyAttributes() {
+        return lazyAttributes;
+    }
+
+    public void setLazyAttributes(boolean lazyAttributes) {
+        this.lazyAttributes = lazyAttributes;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public void setSymbolTable(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+
+    /**
+     * Components read and time spent by a reader and its forks, which may
+     * read lazily parsed parts of the tree on other threads. Only the time
+     * spent reading components counts, not the time between reads.
+     */
+    private static final class Budget {
+        final AtomicInteger componentCount = new AtomicInteger();
+        final AtomicLong spentNanos = new AtomicLong();
+    }
+
 }
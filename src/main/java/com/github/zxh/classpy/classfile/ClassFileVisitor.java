@@ -0,0 +1,68 @@
+package com.github.zxh.classpy.classfile;
+
+import com.github.zxh.classpy.classfile.jvm.Opcode;
+
+import java.util.List;
+
+/**
+ * Receives the structures of a class file in file order from
+ * ClassFileParser.accept(), without the ClassFile tree being built.
+ * All methods do nothing by default. Methods returning boolean decide
+ * whether the content of the visited structure is walked (true)
+ * or skipped (false).
+ */
+public interface ClassFileVisitor {
+
+    default void visitVersion(int minorVersion, int majorVersion) {}
+
+    /**
+     * @param index index in constant_pool
+     * @param tag tag of the constant
+     * @param offset position of the constant's info (after tag) in class file
+     */
+    default void visitConstant(int index, int tag, int offset) {}
+
+    default void visitClass(int accessFlags, String thisClass,
+                            String superClass, List<String> interfaces) {}
+
+    /**
+     * @return true to visit attributes of the field
+     */
+    default boolean visitField(int accessFlags, String name, String descriptor) {
+        return true;
+    }
+
+    /**
+     * @return true to visit attributes of the method
+     */
+    default boolean visitMethod(int accessFlags, String name, String descriptor) {
+        return true;
+    }
+
+    /**
+     * Visits attribute of class, field, method or Code attribute.
+     * @param name attribute name
+     * @param offset position of the attribute's info in class file
+     * @param length attribute_length
+     * @return true to walk the content (only Code attribute has content to walk)
+     */
+    default boolean visitAttribute(String name, int offset, int length) {
+        return false;
+    }
+
+    /**
+     * @return true to visit instructions
+     */
+    default boolean visitCode(int maxStack, int maxLocals, int codeLength) {
+        return true;
+    }
+
+    default void visitInstruction(int pc, Opcode opcode) {}
+
+    /**
+     * Called when leaving a field, method or Code attribute whose content
+     * was walked, and at the end of the class file.
+     */
+    default void visitEnd() {}
+
+}
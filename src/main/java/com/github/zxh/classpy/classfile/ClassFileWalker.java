@@ -0,0 +1,127 @@
+package com.github.zxh.classpy.classfile;
+
+import com.github.zxh.classpy.classfile.bytecode.BytecodeCursor;
+import com.github.zxh.classpy.classfile.jvm.Opcode;
+import com.github.zxh.classpy.common.ParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives ClassFileVisitor straight off ClassFileReader.
+ */
+class ClassFileWalker {
+
+    private final ClassFileReader reader;
+    private final ClassFileVisitor visitor;
+    private RawConstantPool cp;
+
+    ClassFileWalker(ClassFileReader reader, ClassFileVisitor visitor) {
+        this.reader = reader;
+        this.visitor = visitor;
+    }
+
+    void walk() {
+        if (reader.readInt() != 0xCAFEBABE) {
+            throw new ParseException("Not a class file!");
+        }
+        int minorVersion = reader.readUnsignedShort();
+        int majorVersion = reader.readUnsignedShort();
+        visitor.visitVersion(minorVersion, majorVersion);
+
+        cp = new RawConstantPool(reader);
+        for (int i = 1; i < cp.getCount(); i++) {
+            if (cp.getTag(i) != 0) {
+                visitor.visitConstant(i, cp.getTag(i), cp.getOffset(i));
+            }
+        }
+
+        int accessFlags = reader.readUnsignedShort();
+        String thisClass = cp.getClassName(reader.readUnsignedShort());
+        String superClass = cp.getClassName(reader.readUnsignedShort());
+        int interfacesCount = reader.readUnsignedShort();
+        reader.checkCount("interfaces_count", interfacesCount, 2);
+        List<String> interfaces = new ArrayList<>(interfacesCount);
+        for (int i = 0; i < interfacesCount; i++) {
+            interfaces.add(cp.getClassName(reader.readUnsignedShort()));
+        }
+        visitor.visitClass(accessFlags, thisClass, superClass, interfaces);
+
+        walkMembers(true);
+        walkMembers(false);
+        walkAttributes();
+        visitor.visitEnd();
+    }
+
+    private void walkMembers(boolean fields) {
+        int count = reader.readUnsignedShort();
+        reader.checkCount("members count", count, 8);
+        for (int i = 0; i < count; i++) {
+            int accessFlags = reader.readUnsignedShort();
+            String name = cp.getUtf8(reader.readUnsignedShort());
+            String descriptor = cp.getUtf8(reader.readUnsignedShort());
+            boolean walk = fields
+                    ? visitor.visitField(accessFlags, name, descriptor)
+                    : visitor.visitMethod(accessFlags, name, descriptor);
+            if (walk) {
+                walkAttributes();
+                visitor.visitEnd();
+            } else {
+                skipAttributes();
+            }
+        }
+    }
+
+    private void walkAttributes() {
+        int count = reader.readUnsignedShort();
+        reader.checkCount("attributes_count", count, 6);
+        for (int i = 0; i < count; i++) {
+            String name = cp.getUtf8(reader.readUnsignedShort());
+            int length = reader.readInt();
+            reader.checkAttributeLength(length);
+            int offset = reader.getPosition();
+            if (visitor.visitAttribute(name, offset, length) && "Code".equals(name)) {
+                walkCode();
+            }
+            reader.setPosition(offset + length);
+        }
+    }
+
+    private void skipAttributes() {
+        int count = reader.readUnsignedShort();
+        reader.checkCount("attributes_count", count, 6);
+        for (int i = 0; i < count; i++) {
+            reader.skipBytes(2);
+            int length = reader.readInt();
+            reader.checkAttributeLength(length);
+            reader.skipBytes(length);
+        }
+    }
+
+    private void walkCode() {
+        int maxStack = reader.readUnsignedShort();
+        int maxLocals = reader.readUnsignedShort();
+        int codeLength = reader.readInt();
+        reader.checkCount("code_length", codeLength, 1);
+        int codeStart = reader.getPosition();
+        if (visitor.visitCode(maxStack, maxLocals, codeLength)) {
+            walkInstructions(codeStart, codeLength);
+            reader.setPosition(codeStart + codeLength);
+            int exceptionTableLength = reader.readUnsignedShort();
+            reader.checkCount("exception_table_length", exceptionTableLength, 8);
+            reader.skipBytes(8 * exceptionTableLength);
+            walkAttributes();
+            visitor.visitEnd();
+        }
+    }
+
+    // a wide instruction is visited as wide, like in the parsed tree
+    private void walkInstructions(int codeStart, int codeLength) {
+        BytecodeCursor cursor = new BytecodeCursor(reader.slice(codeStart, codeLength));
+        while (cursor.next()) {
+            visitor.visitInstruction(cursor.getPc(),
+                    cursor.isWide() ? Opcode.wide : cursor.getOpcode());
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.github.zxh.classpy.classfile;
+
+import com.github.zxh.classpy.common.ParseException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Signatures of a class, read by ClassFileParser.scan() without building
+ * the ClassFile tree. Class names are internal names like java/lang/Object.
+ */
+public class ClassSummary {
+
+    public final int minorVersion;
+    public final int majorVersion;
+    public final int accessFlags;
+    public final String thisClass;
+    public final String superClass; // null for java/lang/Object and module-info
+    public final List<String> interfaces;
+    public final List<MemberSummary> fields;
+    public final List<MemberSummary> methods;
+    public final List<String> attributes;
+
+    private ClassSummary(ClassFileReader reader) {
+        if (reader.readInt() != 0xCAFEBABE) {
+            throw new ParseException("Not a class file!");
+        }
+        minorVersion = reader.readUnsignedShort();
+        majorVersion = reader.readUnsignedShort();
+
+        RawConstantPool cp = new RawConstantPool(reader);
+        accessFlags = reader.readUnsignedShort();
+        thisClass = cp.getClassName(reader.readUnsignedShort());
+        superClass = cp.getClassName(reader.readUnsignedShort());
+
+        int interfacesCount = reader.readUnsignedShort();
+        reader.checkCount("interfaces_count", interfacesCount, 2);
+        List<String> interfaceNames = new ArrayList<>(interfacesCount);
+        for (int i = 0; i < interfacesCount; i++) {
+            interfaceNames.add(cp.getClassName(reader.readUnsignedShort()));
+        }
+        interfaces = Collections.unmodifiableList(interfaceNames);
+
+        fields = readMembers(reader, cp);
+        methods = readMembers(reader, cp);
+        attributes = readAttributeNames(reader, cp);
+    }
+
+    static ClassSummary scan(ClassFileReader reader) {
+        return new ClassSummary(reader);
+    }
+
+    private static List<MemberSummary> readMembers(ClassFileReader reader,
+                                                   RawConstantPool cp) {
+        int count = reader.readUnsignedShort();
+        reader.checkCount("members count", count, 8);
+        List<MemberSummary> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(new MemberSummary(reader, cp));
+        }
+        return Collections.unmodifiableList(members);
+    }
+
+    private static List<String> readAttributeNames(ClassFileReader reader,
+                                                   RawConstantPool cp) {
+        int count = reader.readUnsignedShort();
+        reader.checkCount("attributes_count", count, 6);
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(cp.getUtf8(reader.readUnsignedShort()));
+            int length = reader.readInt();
+            reader.checkAttributeLength(length);
+            reader.skipBytes(length);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    @Override
+    public String toString() {
+        return thisClass;
+    }
+
+
+    /**
+     * Signature of field or method.
+     */
+    public static class MemberSummary {
+
+        public final int accessFlags;
+        public final String name;
+        public final String descriptor;
+        public final List<String> attributes;
+
+        private MemberSummary(ClassFileReader reader, RawConstantPool cp) {
+            accessFlags = reader.readUnsignedShort();
+            name = cp.getUtf8(reader.readUnsignedShort());
+            descriptor = cp.getUtf8(reader.readUnsignedShort());
+            attributes = readAttributeNames(reader, cp);
+        }
+
+        @Override
+        public String toString() {
+            return name + descriptor;
+        }
+
+    }
+
+}
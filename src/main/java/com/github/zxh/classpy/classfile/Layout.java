@@ -0,0 +1,182 @@
+package com.github.zxh.classpy.classfile;
+
+import com.github.zxh.classpy.classfile.datatype.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Names and factories of the sub-components of a ClassFileComponent.
+ * A layout is built once per component class and shared by all instances,
+ * so creating a component needs neither reflection nor layout building.
+ */
+public final class Layout {
+
+    private final String[] names;
+    private final List<Function<ClassFileComponent, ClassFileComponent>> factories;
+
+    private Layout(Builder builder) {
+        this.names = builder.names.toArray(new String[builder.names.size()]);
+        this.factories = new ArrayList<>(builder.factories);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts a layout which begins with all sub-components of base.
+     * @param base
+     * @return
+     */
+    public static Builder builder(Layout base) {
+        Builder builder = new Builder();
+        for (int i = 0; i < base.names.length; i++) {
+            builder.addFactory(base.names[i], base.factories.get(i));
+        }
+        return builder;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the slot index of the named sub-component, used to look up
+     * sub-components without comparing names.
+     * @param name
+     * @return
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No such sub-component: " + name);
+    }
+
+    /**
+     * Creates the sub-component at index.
+     * @param index
+     * @param prev the sub-component created before, or null
+     * @return
+     */
+    public ClassFileComponent create(int index, ClassFileComponent prev) {
+        return factories.get(index).apply(prev);
+    }
+
+
+    public static final class Builder {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Function<ClassFileComponent, ClassFileComponent>> factories = new ArrayList<>();
+
+        private Builder() {}
+
+        private Builder addFactory(String name, Function<ClassFileComponent, ClassFileComponent> factory) {
+            names.add(name);
+            factories.add(factory);
+            return this;
+        }
+
+        public Builder u1(String name) {
+            return addFactory(name, prev -> new U1());
+        }
+
+        public Builder u1hex(String name) {
+            return addFactory(name, prev -> new U1Hex());
+        }
+
+        public Builder u1cp(String name) {
+            return addFactory(name, prev -> new U1CpIndex());
+        }
+
+        public Builder u2(String name) {
+            return addFactory(name, prev -> new U2());
+        }
+
+        public Builder u2cp(String name) {
+            return addFactory(name, prev -> new U2CpIndex());
+        }
+
+        public Builder u2af(String name, int afType) {
+            return addFactory(name, prev -> new U2AccessFlags(afType));
+        }
+
+        public Builder u4(String name) {
+            return addFactory(name, prev -> new U4());
+        }
+
+        public Builder u4hex(String name) {
+            return addFactory(name, prev -> new U4Hex());
+        }
+
+        /**
+         * Table whose length is the preceding UInt.
+         * @param name
+         * @param entrySupplier
+         * @return
+         */
+        public Builder table(String name,
+                             Supplier<? extends ClassFileComponent> entrySupplier) {
+            return addFactory(name, prev -> new Table((UInt) prev, entrySupplier));
+        }
+
+        /**
+         * U2Array whose length is the preceding UInt.
+         * @param name
+         * @param entrySupplier creates entry components for display
+         * @return
+         */
+        public Builder u2array(String name,
+                               Supplier<? extends UInt> entrySupplier) {
+            return addFactory(name, prev -> new U2Array((UInt) prev, entrySupplier));
+        }
+
+        /**
+         * Table of attribute_info whose length is the preceding UInt.
+         * @param name
+         * @return
+         */
+        public Builder attributes(String name) {
+            return addFactory(name, prev -> new Table((UInt) prev));
+        }
+
+        /**
+         * Bytes whose count is the preceding UInt.
+         * @param name
+         * @return
+         */
+        public Builder bytes(String name) {
+            return addFactory(name, prev -> new Bytes((UInt) prev));
+        }
+
+        public Builder add(String name, Supplier<? extends ClassFileComponent> supplier) {
+            return addFactory(name, prev -> supplier.get());
+        }
+
+        /**
+         * Sub-component which depends on the value of the preceding UInt.
+         * @param name
+         * @param factory
+         * @return
+         */
+        public Builder dependent(String name,
+                                 Function<UInt, ? extends ClassFileComponent> factory) {
+            return addFactory(name, prev -> factory.apply((UInt) prev));
+        }
+
+        public Layout build() {
+            return new Layout(this);
+        }
+
+    }
+
+}
@@ -1,8 +1,12 @@
 package com.github.zxh.classpy.classfile;
 
-import com.github.zxh.classpy.classfile.attribute.AttributeInfo;
+import com.github.zxh.classpy.classfile.attribute.CodeAttribute;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
+import com.github.zxh.classpy.classfile.datatype.Table;
+import com.github.zxh.classpy.classfile.datatype.U2AccessFlags;
+import com.github.zxh.classpy.classfile.datatype.U2CpIndex;
 import com.github.zxh.classpy.classfile.jvm.AccessFlagType;
+import com.github.zxh.classpy.common.FileComponent;
 
 /*
 method_info {
@@ -15,17 +19,54 @@ method_info {
  */
 public class MethodInfo extends ClassFileComponent {
 
-    {
-        u2af ("access_flags", AccessFlagType.AF_METHOD);
-        u2cp ("name_index");
-        u2cp ("descriptor_index");
-        u2   ("attributes_count");
-        table("attributes", AttributeInfo.class);
+    private static final Layout LAYOUT = Layout.builder()
+            .u2af ("access_flags", AccessFlagType.AF_METHOD)
+            .u2cp ("name_index")
+            .u2cp ("descriptor_index")
+            .u2   ("attributes_count")
+            .attributes("attributes")
+            .build();
+
+    private static final int ACCESS_FLAGS = LAYOUT.indexOf("access_flags");
+    private static final int NAME_INDEX = LAYOUT.indexOf("name_index");
+    private static final int DESCRIPTOR_INDEX = LAYOUT.indexOf("descriptor_index");
+    private static final int ATTRIBUTES = LAYOUT.indexOf("attributes");
+
+    public MethodInfo() {
+        super(LAYOUT);
+    }
+
+    public U2AccessFlags accessFlags() {
+        return (U2AccessFlags) super.get(ACCESS_FLAGS);
+    }
+
+    public U2CpIndex nameIndex() {
+        return (U2CpIndex) super.get(NAME_INDEX);
+    }
+
+    public U2CpIndex descriptorIndex() {
+        return (U2CpIndex) super.get(DESCRIPTOR_INDEX);
+    }
+
+    public Table attributes() {
+        return (Table) super.get(ATTRIBUTES);
+    }
+
+    /**
+     * @return the Code attribute, or null if this method is abstract or native
+     */
+    public CodeAttribute code() {
+        for (FileComponent attr : attributes().getComponents()) {
+            if (attr instanceof CodeAttribute) {
+                return (CodeAttribute) attr;
+            }
+        }
+        return null;
     }
 
     @Override
     protected void postRead(ConstantPool cp) {
-        int nameIndex = super.getUInt("name_index");
+        int nameIndex = nameIndex().getValue();
         if (nameIndex > 0) {
             // todo fix loading java.lang.String from rt.jar
             setDesc(cp.getUtf8String(nameIndex));
@@ -0,0 +1,114 @@
+package com.github.zxh.classpy.classfile;
+
+/**
+ * Limits which stop parsing of pathological class files early, with
+ * ParseException. A parse has one budget of components and time, which
+ * also covers the parts of its tree read later, like lazily parsed
+ * attribute bodies and instructions created on first use. Instructions
+ * count once when their Code attribute is scanned, and again when they
+ * are created.
+ *
+ * <pre>
+ * parser.setLimits(ParseLimits.builder()
+ *         .maxComponents(1_000_000)
+ *         .maxDepth(64)
+ *         .maxAttributeLength(16 * 1024 * 1024)
+ *         .timeBudgetMillis(1000)
+ *         .build());
+ * </pre>
+ */
+public final class ParseLimits {
+
+    private final int maxComponents;
+    private final int maxDepth;
+    private final int maxAttributeLength;
+    private final long timeBudgetMillis;
+
+    private ParseLimits(Builder builder) {
+        this.maxComponents = builder.maxComponents;
+        this.maxDepth = builder.maxDepth;
+        this.maxAttributeLength = builder.maxAttributeLength;
+        this.timeBudgetMillis = builder.timeBudgetMillis;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxComponents() {
+        return maxComponents;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxAttributeLength() {
+        return maxAttributeLength;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+
+    /**
+     * All limits are unlimited unless set.
+     */
+    public static final class Builder {
+
+        private int maxComponents = Integer.MAX_VALUE;
+        private int maxDepth = Integer.MAX_VALUE;
+        private int maxAttributeLength = Integer.MAX_VALUE;
+        private long timeBudgetMillis = Long.MAX_VALUE;
+
+        private Builder() {}
+
+        /**
+         * Max number of components read by one parse, lazily read parts included.
+         * @param maxComponents
+         * @return
+         */
+        public Builder maxComponents(int maxComponents) {
+            this.maxComponents = maxComponents;
+            return this;
+        }
+
+        /**
+         * Max nesting depth of components, the ClassFile is at depth 1.
+         * @param maxDepth
+         * @return
+         */
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Max attribute_length of any attribute.
+         * @param maxAttributeLength
+         * @return
+         */
+        public Builder maxAttributeLength(int maxAttributeLength) {
+            this.maxAttributeLength = maxAttributeLength;
+            return this;
+        }
+
+        /**
+         * Max time spent reading components of one parse, lazily read
+         * parts included, checked every few hundred components.
+         * @param timeBudgetMillis
+         * @return
+         */
+        public Builder timeBudgetMillis(long timeBudgetMillis) {
+            this.timeBudgetMillis = timeBudgetMillis;
+            return this;
+        }
+
+        public ParseLimits build() {
+            return new ParseLimits(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.github.zxh.classpy.classfile;
+
+import com.github.zxh.classpy.common.ParseException;
+
+/**
+ * Offsets and tags of the constants in a class file, used by the scan modes
+ * which don't build the ConstantPool component. Utf8 constants are decoded
+ * on first use.
+ */
+class RawConstantPool {
+
+    private final ClassFileReader reader;
+    private final int count;
+    private final byte[] tags;
+    private final int[] offsets; // offset of the first byte after tag
+    private final String[] utf8Strings;
+
+    /**
+     * Reads constant_pool_count and walks the constant_pool,
+     * the reader is left at access_flags.
+     * @param reader
+     */
+    RawConstantPool(ClassFileReader reader) {
+        this.reader = reader;
+        this.count = reader.readUnsignedShort();
+        reader.checkCount("constant_pool_count", count - 1, 3);
+        this.tags = new byte[count];
+        this.offsets = new int[count];
+        this.utf8Strings = new String[count];
+
+        for (int i = 1; i < count; i++) {
+            byte tag = reader.readByte();
+            tags[i] = tag;
+            offsets[i] = reader.getPosition();
+            int length = getInfoLength(tag, offsets[i]);
+            reader.checkCount("constant info length", length, 1);
+            reader.skipBytes(length);
+            // 8-byte constants take up two entries
+            if (tag == 5 || tag == 6) {
+                i++;
+            }
+        }
+    }
+
+    private int getInfoLength(byte tag, int position) {
+        switch (tag) {
+            case  1: return 2 + Short.toUnsignedInt(reader.getShort(position)); // Utf8
+            case  3: // Integer
+            case  4: return 4; // Float
+            case  5: // Long
+            case  6: return 8; // Double
+            case  7: // Class
+            case  8: // String
+            case 16: // MethodType
+            case 19: // Module
+            case 20: return 2; // Package
+            case  9: // Fieldref
+            case 10: // Methodref
+            case 11: // InterfaceMethodref
+            case 12: // NameAndType
+            case 17: // Dynamic
+            case 18: return 4; // InvokeDynamic
+            case 15: return 3; // MethodHandle
+        }
+
+        throw new ParseException("Invalid Constant Type: " + tag);
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    int getTag(int index) {
+        return tags[index];
+    }
+
+    int getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Reads the u2 at the given offset of constant's info (after tag).
+     * @param index
+     * @param offset
+     * @return
+     */
+    int getU2(int index, int offset) {
+        return Short.toUnsignedInt(reader.getShort(offsets[index] + offset));
+    }
+
+    String getUtf8(int index) {
+        if (index == 0) {
+            return null;
+        }
+        checkTag(index, 1);
+        String str = utf8Strings[index];
+        if (str == null) {
+            str = reader.getSymbol(offsets[index] + 2, getU2(index, 0));
+            utf8Strings[index] = str;
+        }
+        return str;
+    }
+
+    /**
+     * Returns the name of CONSTANT_Class_info, or null if index is 0.
+     * @param index
+     * @return
+     */
+    String getClassName(int index) {
+        if (index == 0) {
+            return null;
+        }
+        checkTag(index, 7);
+        return getUtf8(getU2(index, 0));
+    }
+
+    private void checkTag(int index, int tag) {
+        if (index <= 0 || index >= count || tags[index] != tag) {
+            throw new ParseException("Constant#" + index + " is not of tag " + tag + "!");
+        }
+    }
+
+}
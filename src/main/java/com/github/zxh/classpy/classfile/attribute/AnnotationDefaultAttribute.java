@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.attribute.RuntimeVisibleAnnotationsAttribute.ElementValue;
 
 /*
@@ -11,8 +12,12 @@ AnnotationDefault_attribute {
  */
 public class AnnotationDefaultAttribute extends AttributeInfo {
 
-    {
-        add("default_value", new ElementValue());
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .add("default_value", ElementValue::new)
+            .build();
+
+    public AnnotationDefaultAttribute() {
+        super(LAYOUT);
     }
 
 }
@@ -1,45 +1,90 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Creates concrete XxxAttribute by name. The constant pool looks up the
+ * supplier once per attribute name index and caches it, so attributes
+ * should be registered before parsing.
+ */
 public class AttributeFactory {
 
+    private static final Supplier<AttributeInfo> UNDEFINED = UndefinedAttribute::new;
+    private static final Map<String, Supplier<? extends AttributeInfo>> suppliers = new ConcurrentHashMap<>();
+
+    static {
+        //  predefined class file attributes:
+        register("ConstantValue", ConstantValueAttribute::new);
+        register("Code", CodeAttribute::new);
+        register("StackMapTable", StackMapTableAttribute::new); // todo
+        register("Exceptions", ExceptionsAttribute::new);
+        register("InnerClasses", InnerClassesAttribute::new);
+        register("EnclosingMethod", EnclosingMethodAttribute::new);
+        register("Synthetic", SyntheticAttribute::new);
+        register("Signature", SignatureAttribute::new);
+        register("SourceFile", SourceFileAttribute::new);
+        register("SourceDebugExtension", SourceDebugExtensionAttribute::new); // todo
+        register("LineNumberTable", LineNumberTableAttribute::new);
+        register("LocalVariableTable", LocalVariableTableAttribute::new);
+        register("LocalVariableTypeTable", LocalVariableTypeTableAttribute::new);
+        register("Deprecated", DeprecatedAttribute::new);
+        register("RuntimeVisibleAnnotations", RuntimeVisibleAnnotationsAttribute::new);
+        register("RuntimeInvisibleAnnotations", RuntimeVisibleAnnotationsAttribute::new);
+        register("RuntimeVisibleParameterAnnotations", RuntimeVisibleParameterAnnotationsAttribute::new);
+        register("RuntimeInvisibleParameterAnnotations", RuntimeVisibleParameterAnnotationsAttribute::new);
+        register("RuntimeVisibleTypeAnnotations", RuntimeVisibleTypeAnnotationsAttribute::new);
+        register("RuntimeInvisibleTypeAnnotations", RuntimeVisibleTypeAnnotationsAttribute::new);
+        register("AnnotationDefault", AnnotationDefaultAttribute::new);
+        register("BootstrapMethods", BootstrapMethodsAttribute::new);
+        register("MethodParameters", MethodParametersAttribute::new); // todo
+        register("Module", ModuleAttribute::new);
+        register("ModulePackages", ModulePackagesAttribute::new);
+        register("ModuleMainClass", ModuleMainClassAttribute::new);
+        register("NestHost", NestHostAttribute::new);
+        register("NestMembers", NestMembersAttribute::new);
+        register("Record", RecordAttribute::new);
+        register("PermittedSubclasses", PermittedSubclassesAttribute::new);
+    }
+
+    /**
+     * Registers the attribute created for name, replacing the predefined
+     * one if any. Class files parsed before may still use the old one.
+     * @param name type of attribute
+     * @param supplier
+     */
+    public static void register(String name, Supplier<? extends AttributeInfo> supplier) {
+        suppliers.put(name, supplier);
+    }
+
+    /**
+     * Removes the attribute registered for name, so attributes of that
+     * name are created as UndefinedAttribute. Class files parsed before
+     * may still use the removed one.
+     * @param name type of attribute
+     */
+    public static void unregister(String name) {
+        suppliers.remove(name);
+    }
+
+    /**
+     * Returns the supplier of attributes of the given name,
+     * it creates UndefinedAttribute for unknown names.
+     * @param name type of attribute
+     * @return
+     */
+    public static Supplier<? extends AttributeInfo> getSupplier(String name) {
+        return suppliers.getOrDefault(name, UNDEFINED);
+    }
+
     /**
      * Create concrete XxxAttribute by name.
      * @param name type of attribute
      * @return new AttributeInfo
      */
     public static AttributeInfo create(String name) {
-        //  predefined class file attributes:
-        switch (name) {
-            case "ConstantValue": return new ConstantValueAttribute();
-            case "Code": return new CodeAttribute();
-            case "StackMapTable": return new StackMapTableAttribute(); // todo
-            case "Exceptions": return new ExceptionsAttribute();
-            case "InnerClasses": return new InnerClassesAttribute();
-            case "EnclosingMethod": return new EnclosingMethodAttribute();
-            case "Synthetic": return new SyntheticAttribute();
-            case "Signature": return new SignatureAttribute();
-            case "SourceFile":  return new SourceFileAttribute();
-            case "SourceDebugExtension": return new SourceDebugExtensionAttribute(); // todo
-            case "LineNumberTable": return new LineNumberTableAttribute();
-            case "LocalVariableTable": return new LocalVariableTableAttribute();
-            case "LocalVariableTypeTable": return new LocalVariableTypeTableAttribute();
-            case "Deprecated": return new DeprecatedAttribute();
-            case "RuntimeVisibleAnnotations": return new RuntimeVisibleAnnotationsAttribute();
-            case "RuntimeInvisibleAnnotations": return new RuntimeVisibleAnnotationsAttribute();
-            case "RuntimeVisibleParameterAnnotations": return new RuntimeVisibleParameterAnnotationsAttribute();
-            case "RuntimeInvisibleParameterAnnotations": return new RuntimeVisibleParameterAnnotationsAttribute();
-            case "RuntimeVisibleTypeAnnotations": return new RuntimeVisibleTypeAnnotationsAttribute();
-            case "RuntimeInvisibleTypeAnnotations": return new RuntimeVisibleTypeAnnotationsAttribute();
-            case "AnnotationDefault": return new AnnotationDefaultAttribute();
-            case "BootstrapMethods": return new BootstrapMethodsAttribute();
-            case "MethodParameters": return new MethodParametersAttribute(); // todo
-            case "Module": return new ModuleAttribute();
-            case "ModulePackages": return new ModulePackagesAttribute();
-            case "ModuleMainClass": return new ModuleMainClassAttribute();
-        }
-
-        //throw new ParseException(name);
-        return new UndefinedAttribute();
+        return getSupplier(name).get();
     }
 
 }
@@ -1,6 +1,13 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.ClassFileReader;
+import com.github.zxh.classpy.classfile.Layout;
+import com.github.zxh.classpy.classfile.datatype.U2;
+import com.github.zxh.classpy.classfile.datatype.U4;
+import com.github.zxh.classpy.common.FileComponent;
+
+import java.util.List;
 
 /*
 attribute_info {
@@ -11,9 +18,94 @@ attribute_info {
  */
 public abstract class AttributeInfo extends ClassFileComponent {
 
-    {
-        u2("attribute_name_index");
-        u4("attribute_length");
+    protected static final Layout HEADER = Layout.builder()
+            .u2("attribute_name_index")
+            .u4("attribute_length")
+            .build();
+
+    private static final int ATTRIBUTE_NAME_INDEX = HEADER.indexOf("attribute_name_index");
+    private static final int ATTRIBUTE_LENGTH = HEADER.indexOf("attribute_length");
+
+    protected AttributeInfo(Layout layout) {
+        super(layout);
+    }
+
+    public U2 attributeNameIndex() {
+        return (U2) super.get(ATTRIBUTE_NAME_INDEX);
+    }
+
+    public U4 attributeLength() {
+        return (U4) super.get(ATTRIBUTE_LENGTH);
+    }
+
+    /**
+     * Returns sub-component of the attribute body at index,
+     * the body is parsed first if it was skipped.
+     * @param index
+     * @return
+     */
+    protected final FileComponent getBodyComponent(int index) {
+        return getComponents().get(index);
+    }
+
+    // not null until the skipped body is parsed
+    private volatile ClassFileReader lazyReader;
+    private boolean parsingBody;
+
+    /**
+     * Reads attribute_name_index and attribute_length, records offset and
+     * length, and skips the body. The body is parsed on the first
+     * getComponents() call.
+     * @param reader
+     */
+    public final void skip(ClassFileReader reader) {
+        int offset = reader.getPosition();
+        attributeNameIndex().read(reader);
+        attributeLength().read(reader);
+        reader.checkAttributeLength(attributeLength().getValue());
+        reader.skipBytes(attributeLength().getValue());
+        super.setOffset(offset);
+        super.setLength(reader.getPosition() - offset);
+        lazyReader = reader;
+    }
+
+    /**
+     * Reads the header first, so that attribute_length is checked
+     * before the body is read.
+     * @param reader
+     */
+    @Override
+    protected void readContent(ClassFileReader reader) {
+        attributeNameIndex().read(reader);
+        attributeLength().read(reader);
+        reader.checkAttributeLength(attributeLength().getValue());
+
+        List<FileComponent> components = super.getComponents();
+        for (int i = HEADER.size(); i < components.size(); i++) {
+            ((ClassFileComponent) components.get(i)).read(reader);
+        }
+    }
+
+    @Override
+    public List<FileComponent> getComponents() {
+        if (lazyReader != null) {
+            readBody();
+        }
+        return super.getComponents();
+    }
+
+    private synchronized void readBody() {
+        if (lazyReader == null || parsingBody) {
+            return;
+        }
+
+        parsingBody = true;
+        try {
+            read(lazyReader.fork(getOffset()));
+            lazyReader = null;
+        } finally {
+            parsingBody = false;
+        }
     }
 
 }
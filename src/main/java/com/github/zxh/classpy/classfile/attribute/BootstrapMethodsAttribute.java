@@ -1,6 +1,7 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.datatype.U2CpIndex;
 
 /*
@@ -16,18 +17,26 @@ BootstrapMethods_attribute {
  */
 public class BootstrapMethodsAttribute extends AttributeInfo {
 
-    {
-        u2   ("num_bootstrap_methods");
-        table("bootstrap_methods", BootstrapMethodInfo.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2   ("num_bootstrap_methods")
+            .table("bootstrap_methods", BootstrapMethodInfo::new)
+            .build();
+
+    public BootstrapMethodsAttribute() {
+        super(LAYOUT);
     }
 
     
     public static class BootstrapMethodInfo extends ClassFileComponent {
 
-        {
-            u2cp ("bootstrap_method_ref");
-            u2   ("num_bootstrap_arguments");
-            table("bootstrap_arguments", U2CpIndex.class);
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp   ("bootstrap_method_ref")
+                .u2     ("num_bootstrap_arguments")
+                .u2array("bootstrap_arguments", U2CpIndex::new)
+                .build();
+
+        public BootstrapMethodInfo() {
+            super(LAYOUT);
         }
         
     }
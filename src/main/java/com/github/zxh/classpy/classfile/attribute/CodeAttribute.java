@@ -1,14 +1,18 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
+import com.github.zxh.classpy.classfile.bytecode.BytecodeCursor;
 import com.github.zxh.classpy.classfile.bytecode.Instruction;
 import com.github.zxh.classpy.classfile.bytecode.InstructionFactory;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
-import com.github.zxh.classpy.classfile.constant.ConstantPool;
-import com.github.zxh.classpy.classfile.datatype.U4;
+import com.github.zxh.classpy.classfile.datatype.Table;
+import com.github.zxh.classpy.classfile.datatype.U2;
+import com.github.zxh.classpy.classfile.datatype.UInt;
 import com.github.zxh.classpy.classfile.ClassFileReader;
 import com.github.zxh.classpy.common.FileComponent;
 
+import java.util.Arrays;
 import java.util.List;
 
 /*
@@ -31,67 +35,149 @@ Code_attribute {
  */
 public class CodeAttribute extends AttributeInfo {
 
-    {
-        U4 codeLength = new U4();
-
-        u2   ("max_stack");
-        u2   ("max_locals");
-        add  ("code_length", codeLength);
-        add  ("code", new Code(codeLength));
-        u2   ("exception_table_length");
-        table("exception_table", ExceptionTableEntry.class);
-        u2   ("attributes_count");
-        table("attributes", AttributeInfo.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2        ("max_stack")
+            .u2        ("max_locals")
+            .u4        ("code_length")
+            .dependent ("code", Code::new)
+            .u2        ("exception_table_length")
+            .table     ("exception_table", ExceptionTableEntry::new)
+            .u2        ("attributes_count")
+            .attributes("attributes")
+            .build();
+
+    private static final int MAX_STACK = LAYOUT.indexOf("max_stack");
+    private static final int MAX_LOCALS = LAYOUT.indexOf("max_locals");
+    private static final int CODE = LAYOUT.indexOf("code");
+    private static final int EXCEPTION_TABLE = LAYOUT.indexOf("exception_table");
+    private static final int ATTRIBUTES = LAYOUT.indexOf("attributes");
+
+    public CodeAttribute() {
+        super(LAYOUT);
+    }
+
+    public U2 maxStack() {
+        return (U2) getBodyComponent(MAX_STACK);
+    }
+
+    public U2 maxLocals() {
+        return (U2) getBodyComponent(MAX_LOCALS);
+    }
+
+    public Code code() {
+        return (Code) getBodyComponent(CODE);
+    }
+
+    public Table exceptionTable() {
+        return (Table) getBodyComponent(EXCEPTION_TABLE);
+    }
+
+    public Table attributes() {
+        return (Table) getBodyComponent(ATTRIBUTES);
     }
 
 
     public static class ExceptionTableEntry extends ClassFileComponent {
 
-        {
-            u2  ("start_pc");
-            u2  ("end_pc");
-            u2  ("handler_pc");
-            u2cp("catch_type");
+        private static final Layout LAYOUT = Layout.builder()
+                .u2  ("start_pc")
+                .u2  ("end_pc")
+                .u2  ("handler_pc")
+                .u2cp("catch_type")
+                .build();
+
+        public ExceptionTableEntry() {
+            super(LAYOUT);
         }
 
     }
 
 
-    private class Code extends ClassFileComponent {
+    /**
+     * The instructions. Only the start pc of each instruction is kept while
+     * parsing, Instruction components are created the first time they are
+     * requested. Use cursor() to scan the code without creating them.
+     */
+    public static class Code extends ClassFileComponent {
 
-        private final U4 codeLength;
+        private final UInt codeLength;
+        private ClassFileReader reader;
+        private int[] pcs;
+        private volatile boolean materialized;
 
-        public Code(U4 codeLength) {
+        public Code(UInt codeLength) {
             this.codeLength = codeLength;
         }
 
+        /**
+         * Returns a new cursor over the code array, which reads
+         * instructions without creating Instruction components.
+         * @return
+         */
+        public BytecodeCursor cursor() {
+            return new BytecodeCursor(reader.slice(getOffset(), codeLength.getValue()));
+        }
+
+        public int getInstructionCount() {
+            return pcs.length;
+        }
+
+        public int getPc(int index) {
+            return pcs[index];
+        }
+
         @Override
         protected void readContent(ClassFileReader reader) {
-            final int startPosition = reader.getPosition();
-            final int endPosition = startPosition + codeLength.getValue();
+            this.reader = reader;
+            int length = codeLength.getValue();
+            reader.checkCount("code_length", length, 1);
+            BytecodeCursor cursor = new BytecodeCursor(reader.slice(reader.getPosition(), length));
+
+            // each instruction takes at least one byte, and the cursor
+            // throws on malformed ones, so there are at most length pcs
+            int[] pcs = new int[Math.min(16, length)];
+            int count = 0;
+            while (cursor.next()) {
+                if (count == pcs.length) {
+                    pcs = Arrays.copyOf(pcs, Math.min(count * 2, length));
+                }
+                pcs[count++] = cursor.getPc();
+                reader.chargeComponent();
+            }
+            this.pcs = Arrays.copyOf(pcs, count);
+            reader.skipBytes(length);
+        }
 
-            int position;
-            while ((position = reader.getPosition()) < endPosition) {
-                int pc = position - startPosition;
-                byte b = reader.getByte(position);
-                Opcode opcode = Opcode.valueOf(Byte.toUnsignedInt(b));
-                Instruction instruction = InstructionFactory.create(opcode, pc);
-                instruction.read(reader);
-                add(instruction);
+        @Override
+        public List<FileComponent> getComponents() {
+            if (!materialized) {
+                materialize();
             }
+            return super.getComponents();
         }
 
         @Override
-        protected void postRead(ConstantPool cp) {
-            List<FileComponent> instructions = super.getComponents();
+        public boolean hasComponents() {
+            return pcs.length > 0;
+        }
+
+        private synchronized void materialize() {
+            if (materialized) {
+                return;
+            }
 
-            int maxPc = ((Instruction) instructions.get(instructions.size() - 1)).getPc();
-            int pcWidth = String.valueOf(maxPc).length();
+            int pcWidth = pcs.length > 0 ? String.valueOf(pcs[pcs.length - 1]).length() : 1;
             String fmtStr = "%0" + pcWidth + "d";
-            for (FileComponent c : instructions) {
-                Instruction instruction = (Instruction) c;
-                instruction.setName(String.format(fmtStr, instruction.getPc()));
+            ClassFileReader codeReader = reader.fork(getOffset());
+            for (int pc : pcs) {
+                byte b = codeReader.getByte(getOffset() + pc);
+                Opcode opcode = Opcode.valueOf(Byte.toUnsignedInt(b));
+                Instruction instruction = InstructionFactory.create(opcode, pc);
+                instruction.read(codeReader);
+                instruction.setName(String.format(fmtStr, pc));
+                add(instruction);
             }
+            materialized = true;
         }
 
     }
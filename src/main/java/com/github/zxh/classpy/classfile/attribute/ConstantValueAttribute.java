@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 ConstantValue_attribute {
     u2 attribute_name_index;
@@ -9,8 +10,12 @@ ConstantValue_attribute {
  */
 public class ConstantValueAttribute extends AttributeInfo {
 
-    {
-        u2cp("constant_value_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2cp("constant_value_index")
+            .build();
+
+    public ConstantValueAttribute() {
+        super(LAYOUT);
     }
     
 }
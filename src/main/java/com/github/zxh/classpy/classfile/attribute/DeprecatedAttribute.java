@@ -8,4 +8,8 @@ Deprecated_attribute {
  */
 public class DeprecatedAttribute extends AttributeInfo {
 
+    public DeprecatedAttribute() {
+        super(HEADER);
+    }
+
 }
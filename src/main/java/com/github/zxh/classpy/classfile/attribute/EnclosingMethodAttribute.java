@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 EnclosingMethod_attribute {
     u2 attribute_name_index;
@@ -10,9 +11,13 @@ EnclosingMethod_attribute {
  */
 public class EnclosingMethodAttribute extends AttributeInfo {
 
-    {
-        u2cp("class_index");
-        u2cp("method_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2cp("class_index")
+            .u2cp("method_index")
+            .build();
+
+    public EnclosingMethodAttribute() {
+        super(LAYOUT);
     }
 
 }
@@ -1,5 +1,7 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
+import com.github.zxh.classpy.classfile.datatype.U2Array;
 import com.github.zxh.classpy.classfile.datatype.U2CpIndex;
 
 /*
@@ -12,9 +14,19 @@ Exceptions_attribute {
  */
 public class ExceptionsAttribute extends AttributeInfo {
 
-    {
-        u2   ("number_of_exceptions");
-        table("exception_index_table", U2CpIndex.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2     ("number_of_exceptions")
+            .u2array("exception_index_table", U2CpIndex::new)
+            .build();
+
+    private static final int EXCEPTION_INDEX_TABLE = LAYOUT.indexOf("exception_index_table");
+
+    public ExceptionsAttribute() {
+        super(LAYOUT);
+    }
+
+    public U2Array exceptionIndexTable() {
+        return (U2Array) getBodyComponent(EXCEPTION_INDEX_TABLE);
     }
     
 }
@@ -1,6 +1,7 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.jvm.AccessFlagType;
 
 /*
@@ -17,19 +18,27 @@ InnerClasses_attribute {
  */
 public class InnerClassesAttribute extends AttributeInfo {
 
-    {
-        u2   ("number_of_classes");
-        table("classes", InnerClassInfo.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2   ("number_of_classes")
+            .table("classes", InnerClassInfo::new)
+            .build();
+
+    public InnerClassesAttribute() {
+        super(LAYOUT);
     }
     
     
     public static class InnerClassInfo extends ClassFileComponent {
 
-        {
-            u2cp("inner_class_info_index");
-            u2cp("outer_class_info_index");
-            u2cp("inner_name_index");
-            u2af("inner_class_access_flags", AccessFlagType.AF_NESTED_CLASS);
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp("inner_class_info_index")
+                .u2cp("outer_class_info_index")
+                .u2cp("inner_name_index")
+                .u2af("inner_class_access_flags", AccessFlagType.AF_NESTED_CLASS)
+                .build();
+
+        public InnerClassInfo() {
+            super(LAYOUT);
         }
         
     }
@@ -1,6 +1,7 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 
 /*
@@ -15,23 +16,34 @@ LineNumberTable_attribute {
  */
 public class LineNumberTableAttribute extends AttributeInfo {
 
-    {
-        u2   ("line_number_table_length");
-        table("line_number_table", LineNumberTableEntry.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2   ("line_number_table_length")
+            .table("line_number_table", LineNumberTableEntry::new)
+            .build();
+
+    public LineNumberTableAttribute() {
+        super(LAYOUT);
     }
 
     
     public static class LineNumberTableEntry extends ClassFileComponent {
 
-        {
-            u2("start_pc");
-            u2("line_number");
+        private static final Layout LAYOUT = Layout.builder()
+                .u2("start_pc")
+                .u2("line_number")
+                .build();
+
+        private static final int LINE_NUMBER = LAYOUT.indexOf("line_number");
+        private static final int START_PC = LAYOUT.indexOf("start_pc");
+
+        public LineNumberTableEntry() {
+            super(LAYOUT);
         }
 
         @Override
         protected void postRead(ConstantPool cp) {
-            int lineNumber = super.getUInt("line_number");
-            int startPc = super.getUInt("start_pc");
+            int lineNumber = super.getUInt(LINE_NUMBER);
+            int startPc = super.getUInt(START_PC);
             setName("line " + lineNumber);
             setDesc(Integer.toString(startPc));
         }
@@ -1,7 +1,9 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
+import com.github.zxh.classpy.classfile.datatype.Table;
 
 /*
 LocalVariableTable_attribute {
@@ -18,27 +20,45 @@ LocalVariableTable_attribute {
  */
 public class LocalVariableTableAttribute extends AttributeInfo {
 
-    {
-        u2   ("local_variable_table_length");
-        table("local_variable_table", LocalVariableTableEntry.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2   ("local_variable_table_length")
+            .table("local_variable_table", LocalVariableTableEntry::new)
+            .build();
+
+    private static final int LOCAL_VARIABLE_TABLE = LAYOUT.indexOf("local_variable_table");
+
+    public LocalVariableTableAttribute() {
+        super(LAYOUT);
+    }
+
+    public Table localVariableTable() {
+        return (Table) getBodyComponent(LOCAL_VARIABLE_TABLE);
     }
 
     
     public static class LocalVariableTableEntry extends ClassFileComponent {
 
-        {
-            u2  ("start_pc");
-            u2  ("length");
-            u2cp("name_index");
-            u2cp("descriptor_index");
-            u2  ("index");
+        private static final Layout LAYOUT = Layout.builder()
+                .u2  ("start_pc")
+                .u2  ("length")
+                .u2cp("name_index")
+                .u2cp("descriptor_index")
+                .u2  ("index")
+                .build();
+
+        private static final int START_PC = LAYOUT.indexOf("start_pc");
+        private static final int LENGTH = LAYOUT.indexOf("length");
+        private static final int NAME_INDEX = LAYOUT.indexOf("name_index");
+
+        public LocalVariableTableEntry() {
+            super(LAYOUT);
         }
 
         @Override
         protected void postRead(ConstantPool cp) {
-            int startPc = super.getUInt("start_pc");
-            int length = super.getUInt("length");
-            int nameIndex = super.getUInt("name_index");
+            int startPc = super.getUInt(START_PC);
+            int length = super.getUInt(LENGTH);
+            int nameIndex = super.getUInt(NAME_INDEX);
 
             int fromPc = startPc;
             int toPc = fromPc + length - 1;
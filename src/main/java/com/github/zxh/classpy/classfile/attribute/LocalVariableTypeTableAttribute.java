@@ -1,6 +1,7 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 
 /*
@@ -18,25 +19,35 @@ LocalVariableTypeTable_attribute {
  */
 public class LocalVariableTypeTableAttribute extends AttributeInfo {
 
-    {
-        u2   ("local_variable_type_table_length");
-        table("local_variable_type_table", LocalVariableTypeTableEntry.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2   ("local_variable_type_table_length")
+            .table("local_variable_type_table", LocalVariableTypeTableEntry::new)
+            .build();
+
+    public LocalVariableTypeTableAttribute() {
+        super(LAYOUT);
     }
 
 
     public static class LocalVariableTypeTableEntry extends ClassFileComponent {
 
-        {
-            u2  ("start_pc");
-            u2  ("length");
-            u2cp("name_index");
-            u2cp("signature_index");
-            u2  ("index");
+        private static final Layout LAYOUT = Layout.builder()
+                .u2  ("start_pc")
+                .u2  ("length")
+                .u2cp("name_index")
+                .u2cp("signature_index")
+                .u2  ("index")
+                .build();
+
+        private static final int NAME_INDEX = LAYOUT.indexOf("name_index");
+
+        public LocalVariableTypeTableEntry() {
+            super(LAYOUT);
         }
 
         @Override
         protected void postRead(ConstantPool cp) {
-            int nameIndex = super.getUInt("name_index");
+            int nameIndex = super.getUInt(NAME_INDEX);
             setDesc(cp.getUtf8String(nameIndex));
         }
     
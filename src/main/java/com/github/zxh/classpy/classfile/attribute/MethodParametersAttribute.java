@@ -1,6 +1,7 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 
 /*
 MethodParameters_attribute {
@@ -14,17 +15,25 @@ MethodParameters_attribute {
  */
 public class MethodParametersAttribute extends AttributeInfo {
 
-    {
-        u1   ("parameters_count");
-        table("parameters", ParameterInfo.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u1   ("parameters_count")
+            .table("parameters", ParameterInfo::new)
+            .build();
+
+    public MethodParametersAttribute() {
+        super(LAYOUT);
     }
 
     
     public static class ParameterInfo extends ClassFileComponent {
 
-        {
-            u2("name_index");
-            u2("access_flags");
+        private static final Layout LAYOUT = Layout.builder()
+                .u2("name_index")
+                .u2("access_flags")
+                .build();
+
+        public ParameterInfo() {
+            super(LAYOUT);
         }
         
     }
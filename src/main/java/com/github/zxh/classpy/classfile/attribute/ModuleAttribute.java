@@ -1,6 +1,7 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.datatype.U2CpIndex;
 import com.github.zxh.classpy.classfile.jvm.AccessFlagType;
@@ -46,34 +47,45 @@ Module_attribute {
  */
 public class ModuleAttribute extends AttributeInfo {
 
-    {
-        u2cp ("module_name_index");
-        u2   ("module_flags");
-        u2cp ("module_version_index");
-        u2   ("requires_count");
-        table("requires", Require.class);
-        u2   ("exports_count");
-        table("exports", Export.class);
-        u2   ("opens_count");
-        table("opens", Open.class);
-        u2   ("uses_count");
-        table("uses_index", U2CpIndex.class);
-        u2   ("provides_count");
-        table("provides", Provide.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2cp   ("module_name_index")
+            .u2     ("module_flags")
+            .u2cp   ("module_version_index")
+            .u2     ("requires_count")
+            .table  ("requires", Require::new)
+            .u2     ("exports_count")
+            .table  ("exports", Export::new)
+            .u2     ("opens_count")
+            .table  ("opens", Open::new)
+            .u2     ("uses_count")
+            .u2array("uses_index", U2CpIndex::new)
+            .u2     ("provides_count")
+            .table  ("provides", Provide::new)
+            .build();
+
+    public ModuleAttribute() {
+        super(LAYOUT);
     }
 
     public static class Require extends ClassFileComponent {
 
-        {
-            u2cp("requires_index");
-            u2af("requires_flags", AccessFlagType.AF_MODULE_ATTR);
-            u2cp("requires_version_index");
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp("requires_index")
+                .u2af("requires_flags", AccessFlagType.AF_MODULE_ATTR)
+                .u2cp("requires_version_index")
+                .build();
+
+        private static final int REQUIRES_INDEX = LAYOUT.indexOf("requires_index");
+        private static final int REQUIRES_VERSION_INDEX = LAYOUT.indexOf("requires_version_index");
+
+        public Require() {
+            super(LAYOUT);
         }
 
         @Override
         protected void postRead(ConstantPool cp) {
-            String moduleName = cp.getConstantDesc(super.getUInt("requires_index"));
-            String version = cp.getConstantDesc(super.getUInt("requires_version_index"));
+            String moduleName = cp.getConstantDesc(super.getUInt(REQUIRES_INDEX));
+            String version = cp.getConstantDesc(super.getUInt(REQUIRES_VERSION_INDEX));
             setDesc(moduleName + "@" + version);
         }
 
@@ -81,47 +93,65 @@ public class ModuleAttribute extends AttributeInfo {
 
     public static class Export extends ClassFileComponent {
 
-        {
-            u2cp ("exports_index");
-            u2af ("exports_flags", AccessFlagType.AF_MODULE_ATTR);
-            u2   ("exports_to_count");
-            table("exports_to", U2CpIndex.class);
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp   ("exports_index")
+                .u2af   ("exports_flags", AccessFlagType.AF_MODULE_ATTR)
+                .u2     ("exports_to_count")
+                .u2array("exports_to", U2CpIndex::new)
+                .build();
+
+        private static final int EXPORTS_INDEX = LAYOUT.indexOf("exports_index");
+
+        public Export() {
+            super(LAYOUT);
         }
 
         @Override
         protected void postRead(ConstantPool cp) {
-            setDesc(cp.getConstantDesc(super.getUInt("exports_index")));
+            setDesc(cp.getConstantDesc(super.getUInt(EXPORTS_INDEX)));
         }
 
     }
 
     public static class Open extends ClassFileComponent {
 
-        {
-            u2cp ("opens_index");
-            u2af ("opens_flags", AccessFlagType.AF_MODULE_ATTR);
-            u2   ("opens_to_count");
-            table("opens_to_index", U2CpIndex.class);
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp   ("opens_index")
+                .u2af   ("opens_flags", AccessFlagType.AF_MODULE_ATTR)
+                .u2     ("opens_to_count")
+                .u2array("opens_to_index", U2CpIndex::new)
+                .build();
+
+        private static final int OPENS_INDEX = LAYOUT.indexOf("opens_index");
+
+        public Open() {
+            super(LAYOUT);
         }
 
         @Override
         protected void postRead(ConstantPool cp) {
-            setDesc(cp.getConstantDesc(super.getUInt("opens_index")));
+            setDesc(cp.getConstantDesc(super.getUInt(OPENS_INDEX)));
         }
 
     }
 
     public static class Provide extends ClassFileComponent {
 
-        {
-            u2cp ("provides_index");
-            u2   ("provides_with_count");
-            table("provides_with_index", U2CpIndex.class);
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp   ("provides_index")
+                .u2     ("provides_with_count")
+                .u2array("provides_with_index", U2CpIndex::new)
+                .build();
+
+        private static final int PROVIDES_INDEX = LAYOUT.indexOf("provides_index");
+
+        public Provide() {
+            super(LAYOUT);
         }
 
         @Override
         protected void postRead(ConstantPool cp) {
-            setDesc(cp.getConstantDesc(super.getUInt("provides_index")));
+            setDesc(cp.getConstantDesc(super.getUInt(PROVIDES_INDEX)));
         }
 
     }
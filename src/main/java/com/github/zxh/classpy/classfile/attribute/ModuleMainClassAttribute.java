@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 ModuleMainClass_attribute {
     u2 attribute_name_index;
@@ -9,8 +10,12 @@ ModuleMainClass_attribute {
  */
 public class ModuleMainClassAttribute extends AttributeInfo {
 
-    {
-        u2cp("main_class_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2cp("main_class_index")
+            .build();
+
+    public ModuleMainClassAttribute() {
+        super(LAYOUT);
     }
 
 }
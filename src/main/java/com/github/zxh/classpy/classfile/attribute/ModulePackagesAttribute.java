@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.datatype.U2;
 import com.github.zxh.classpy.classfile.datatype.U2CpIndex;
 
@@ -13,9 +14,13 @@ ModulePackages_attribute {
  */
 public class ModulePackagesAttribute extends AttributeInfo {
 
-    {
-        u2("package_count");
-        table("package_index", U2CpIndex.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2("package_count")
+            .u2array("package_index", U2CpIndex::new)
+            .build();
+
+    public ModulePackagesAttribute() {
+        super(LAYOUT);
     }
 
 }
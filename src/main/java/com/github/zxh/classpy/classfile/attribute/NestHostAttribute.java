@@ -0,0 +1,22 @@
+package com.github.zxh.classpy.classfile.attribute;
+
+import com.github.zxh.classpy.classfile.Layout;
+
+/*
+NestHost_attribute {
+    u2 attribute_name_index;
+    u4 attribute_length;
+    u2 host_class_index;
+}
+ */
+public class NestHostAttribute extends AttributeInfo {
+
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2cp("host_class_index")
+            .build();
+
+    public NestHostAttribute() {
+        super(LAYOUT);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.github.zxh.classpy.classfile.attribute;
+
+import com.github.zxh.classpy.classfile.Layout;
+import com.github.zxh.classpy.classfile.datatype.U2CpIndex;
+
+/*
+PermittedSubclasses_attribute {
+    u2 attribute_name_index;
+    u4 attribute_length;
+    u2 number_of_classes;
+    u2 classes[number_of_classes];
+}
+ */
+public class PermittedSubclassesAttribute extends AttributeInfo {
+
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2     ("number_of_classes")
+            .u2array("classes", U2CpIndex::new)
+            .build();
+
+    public PermittedSubclassesAttribute() {
+        super(LAYOUT);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.github.zxh.classpy.classfile.attribute;
+
+import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
+
+/*
+Record_attribute {
+    u2                    attribute_name_index;
+    u4                    attribute_length;
+    u2                    components_count;
+    record_component_info components[components_count];
+}
+ */
+public class RecordAttribute extends AttributeInfo {
+
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2   ("components_count")
+            .table("components", RecordComponentInfo::new)
+            .build();
+
+    public RecordAttribute() {
+        super(LAYOUT);
+    }
+
+
+    /*
+    record_component_info {
+        u2             name_index;
+        u2             descriptor_index;
+        u2             attributes_count;
+        attribute_info attributes[attributes_count];
+    }
+     */
+    public static class RecordComponentInfo extends ClassFileComponent {
+
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp      ("name_index")
+                .u2cp      ("descriptor_index")
+                .u2        ("attributes_count")
+                .attributes("attributes")
+                .build();
+
+        public RecordComponentInfo() {
+            super(LAYOUT);
+        }
+
+    }
+
+}
@@ -1,10 +1,11 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.common.ParseException;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.ClassFileReader;
-import com.github.zxh.classpy.classfile.datatype.U1;
+import com.github.zxh.classpy.classfile.datatype.U1Char;
 
 /*
 RuntimeVisibleAnnotations_attribute {
@@ -16,9 +17,13 @@ RuntimeVisibleAnnotations_attribute {
  */
 public class RuntimeVisibleAnnotationsAttribute extends AttributeInfo {
 
-    {
-        u2   ("num_annotations");
-        table("annotations", AnnotationInfo.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2   ("num_annotations")
+            .table("annotations", AnnotationInfo::new)
+            .build();
+
+    public RuntimeVisibleAnnotationsAttribute() {
+        super(LAYOUT);
     }
     
     /*
@@ -32,16 +37,22 @@ public class RuntimeVisibleAnnotationsAttribute extends AttributeInfo {
     */
     public static class AnnotationInfo extends ClassFileComponent {
 
-        {
-            u2cp ("type_index");
-            u2   ("num_element_value_pairs");
-            table("element_value_pairs", ElementValuePair.class);
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp ("type_index")
+                .u2   ("num_element_value_pairs")
+                .table("element_value_pairs", ElementValuePair::new)
+                .build();
+
+        private static final int TYPE_INDEX = LAYOUT.indexOf("type_index");
+
+        public AnnotationInfo() {
+            super(LAYOUT);
         }
 
         
         @Override
         protected void postRead(ConstantPool cp) {
-            int typeIndex = super.getUInt("type_index");
+            int typeIndex = super.getUInt(TYPE_INDEX);
             setDesc(cp.getUtf8String(typeIndex));
         }
         
@@ -49,14 +60,20 @@ public class RuntimeVisibleAnnotationsAttribute extends AttributeInfo {
     
     public static class ElementValuePair extends ClassFileComponent {
 
-        {
-            u2cp("element_name_index");
-            add ("value", new ElementValue());
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp("element_name_index")
+                .add ("value", ElementValue::new)
+                .build();
+
+        private static final int ELEMENT_NAME_INDEX = LAYOUT.indexOf("element_name_index");
+
+        public ElementValuePair() {
+            super(LAYOUT);
         }
 
         @Override
         protected void postRead(ConstantPool cp) {
-            int elementNameIndex = super.getUInt("element_name_index");
+            int elementNameIndex = super.getUInt(ELEMENT_NAME_INDEX);
             setDesc(cp.getUtf8String(elementNameIndex));
         }
         
@@ -92,7 +109,7 @@ public class RuntimeVisibleAnnotationsAttribute extends AttributeInfo {
         }
 
         private void preRead(byte tag) {
-            u1("tag");
+            add("tag", new U1Char());
             switch (tag) {
                 case 'B':
                 case 'C':
@@ -121,28 +138,30 @@ public class RuntimeVisibleAnnotationsAttribute extends AttributeInfo {
             }
         }
 
-        @Override
-        protected void postRead(ConstantPool cp) {
-            U1 tag = (U1) super.get("tag");
-            tag.setDesc(Character.toString((char) tag.getValue()));
-        }
-
     }
     
     public static class EnumConstValue extends ClassFileComponent {
 
-        {
-            u2cp("type_name_index");
-            u2cp("const_name_index");
+        private static final Layout LAYOUT = Layout.builder()
+                .u2cp("type_name_index")
+                .u2cp("const_name_index")
+                .build();
+
+        public EnumConstValue() {
+            super(LAYOUT);
         }
         
     }
     
     public static class ArrayValue extends ClassFileComponent {
 
-        {
-            u2   ("num_values");
-            table("values", ElementValue.class);
+        private static final Layout LAYOUT = Layout.builder()
+                .u2   ("num_values")
+                .table("values", ElementValue::new)
+                .build();
+
+        public ArrayValue() {
+            super(LAYOUT);
         }
         
     }
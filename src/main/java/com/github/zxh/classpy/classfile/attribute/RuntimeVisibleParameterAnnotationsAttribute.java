@@ -1,6 +1,7 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.attribute.RuntimeVisibleAnnotationsAttribute.AnnotationInfo;
 
 /*
@@ -15,17 +16,25 @@ RuntimeVisibleParameterAnnotations_attribute {
  */
 public class RuntimeVisibleParameterAnnotationsAttribute extends AttributeInfo {
 
-    {
-        u1   ("num_parameters");
-        table("parameter_annotations", ParameterAnnotationInfo.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u1   ("num_parameters")
+            .table("parameter_annotations", ParameterAnnotationInfo::new)
+            .build();
+
+    public RuntimeVisibleParameterAnnotationsAttribute() {
+        super(LAYOUT);
     }
     
     
     public static class ParameterAnnotationInfo extends ClassFileComponent {
 
-        {
-            u2   ("num_annotations");
-            table("annotations", AnnotationInfo.class);
+        private static final Layout LAYOUT = Layout.builder()
+                .u2   ("num_annotations")
+                .table("annotations", AnnotationInfo::new)
+                .build();
+
+        public ParameterAnnotationInfo() {
+            super(LAYOUT);
         }
         
     }
@@ -1,8 +1,8 @@
 package com.github.zxh.classpy.classfile.attribute;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.common.ParseException;
-import com.github.zxh.classpy.classfile.datatype.U1Hex;
 import com.github.zxh.classpy.classfile.datatype.UInt;
 import com.github.zxh.classpy.classfile.ClassFileReader;
 import com.github.zxh.classpy.classfile.attribute.RuntimeVisibleAnnotationsAttribute.AnnotationInfo;
@@ -17,9 +17,13 @@ RuntimeVisibleTypeAnnotations_attribute {
  */
 public class RuntimeVisibleTypeAnnotationsAttribute extends AttributeInfo {
 
-    {
-        u2   ("num_annotations");
-        table("annotations", TypeAnnotationInfo.class);
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2   ("num_annotations")
+            .table("annotations", TypeAnnotationInfo::new)
+            .build();
+
+    public RuntimeVisibleTypeAnnotationsAttribute() {
+        super(LAYOUT);
     }
     
     
@@ -48,13 +52,15 @@ public class RuntimeVisibleTypeAnnotationsAttribute extends AttributeInfo {
     */
     public static class TypeAnnotationInfo extends ClassFileComponent {
 
-        {
-            U1Hex targetType = new U1Hex();
+        private static final Layout LAYOUT = Layout.builder()
+                .u1hex    ("target_type")
+                .dependent("target_info", TargetInfo::new)
+                .add      ("target_path", TypePath::new)
+                .add      ("annotation", AnnotationInfo::new)
+                .build();
 
-            add("target_type", targetType);
-            add("target_info", new TargetInfo(targetType));
-            add("target_path", new TypePath());
-            add("annotation", new AnnotationInfo());
+        public TypeAnnotationInfo() {
+            super(LAYOUT);
         }
     
     }
@@ -132,7 +138,7 @@ public class RuntimeVisibleTypeAnnotationsAttribute extends AttributeInfo {
                 case 0x40:
                 case 0x41:
                     u2("tableLength");
-                    table("table", LocalVarInfo.class);
+                    table("table", LocalVarInfo::new);
                     break;
                 case 0x42:
                     u2("exceptionTableIndex");
@@ -160,10 +166,14 @@ public class RuntimeVisibleTypeAnnotationsAttribute extends AttributeInfo {
     
     public static class LocalVarInfo extends ClassFileComponent {
 
-        {
-            u2("start_pc");
-            u2("length");
-            u2("index");
+        private static final Layout LAYOUT = Layout.builder()
+                .u2("start_pc")
+                .u2("length")
+                .u2("index")
+                .build();
+
+        public LocalVarInfo() {
+            super(LAYOUT);
         }
         
     }
@@ -178,18 +188,26 @@ public class RuntimeVisibleTypeAnnotationsAttribute extends AttributeInfo {
     */
     public static class TypePath extends ClassFileComponent {
 
-        {
-            u1   ("path_length");
-            table("path", PathInfo.class);
+        private static final Layout LAYOUT = Layout.builder()
+                .u1   ("path_length")
+                .table("path", PathInfo::new)
+                .build();
+
+        public TypePath() {
+            super(LAYOUT);
         }
         
     }
     
     public static class PathInfo extends ClassFileComponent {
 
-        {
-            u1("type_path_kind");
-            u1("type_argument_index");
+        private static final Layout LAYOUT = Layout.builder()
+                .u1("type_path_kind")
+                .u1("type_argument_index")
+                .build();
+
+        public PathInfo() {
+            super(LAYOUT);
         }
         
     }
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 Signature_attribute {
     u2 attribute_name_index;
@@ -9,8 +10,12 @@ Signature_attribute {
  */
 public class SignatureAttribute extends AttributeInfo {
 
-    {
-        u2cp("signature_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2cp("signature_index")
+            .build();
+
+    public SignatureAttribute() {
+        super(LAYOUT);
     }
     
 }
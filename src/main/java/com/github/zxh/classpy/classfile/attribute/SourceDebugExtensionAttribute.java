@@ -1,5 +1,10 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
+import com.github.zxh.classpy.classfile.datatype.Bytes;
+
+import java.nio.ByteBuffer;
+
 /*
 SourceDebugExtension_attribute {
     u2 attribute_name_index;
@@ -9,8 +14,18 @@ SourceDebugExtension_attribute {
  */
 public class SourceDebugExtensionAttribute extends AttributeInfo {
 
-    {
-        bytes("debug_extension");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .bytes("debug_extension")
+            .build();
+
+    private static final int DEBUG_EXTENSION = LAYOUT.indexOf("debug_extension");
+
+    public SourceDebugExtensionAttribute() {
+        super(LAYOUT);
+    }
+
+    public ByteBuffer debugExtension() {
+        return ((Bytes) getBodyComponent(DEBUG_EXTENSION)).getBytes();
     }
     
 }
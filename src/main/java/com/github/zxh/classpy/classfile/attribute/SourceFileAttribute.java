@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 SourceFile_attribute {
     u2 attribute_name_index;
@@ -9,8 +10,12 @@ SourceFile_attribute {
  */
 public class SourceFileAttribute extends AttributeInfo {
 
-    {
-        u2cp("source_file_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2cp("source_file_index")
+            .build();
+
+    public SourceFileAttribute() {
+        super(LAYOUT);
     }
 
 }
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.ClassFileReader;
 
 /*
@@ -12,15 +13,19 @@ StackMapTable_attribute {
  */
 public class StackMapTableAttribute extends AttributeInfo {
 
-    {
-        u2("number_of_entries");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2("number_of_entries")
+            .build();
+
+    public StackMapTableAttribute() {
+        super(LAYOUT);
     }
 
     @Override
     protected void readContent(ClassFileReader reader) {
         super.readContent(reader);
         // todo
-        reader.skipBytes(super.getUInt("attribute_length") - 2);
+        reader.skipBytes(attributeLength().getValue() - 2);
     }
 
 }
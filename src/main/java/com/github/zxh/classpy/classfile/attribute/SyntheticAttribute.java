@@ -8,4 +8,8 @@ Synthetic_attribute {
  */
 public class SyntheticAttribute extends AttributeInfo {
 
+    public SyntheticAttribute() {
+        super(HEADER);
+    }
+
 }
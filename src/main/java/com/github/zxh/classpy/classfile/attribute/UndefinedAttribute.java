@@ -1,5 +1,10 @@
 package com.github.zxh.classpy.classfile.attribute;
 
+import com.github.zxh.classpy.classfile.Layout;
+import com.github.zxh.classpy.classfile.datatype.Bytes;
+
+import java.nio.ByteBuffer;
+
 /*
 attribute_info {
     u2 attribute_name_index;
@@ -9,8 +14,18 @@ attribute_info {
  */
 public class UndefinedAttribute extends AttributeInfo {
 
-    {
-        bytes("info");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .bytes("info")
+            .build();
+
+    private static final int INFO = LAYOUT.indexOf("info");
+
+    public UndefinedAttribute() {
+        super(LAYOUT);
+    }
+
+    public ByteBuffer info() {
+        return ((Bytes) getBodyComponent(INFO)).getBytes();
     }
     
 }
@@ -1,17 +1,24 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
 import com.github.zxh.classpy.classfile.ClassFileReader;
+import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 public class Bipush extends Instruction {
 
+    private int operand;
+
     public Bipush(Opcode opcode, int pc) {
         super(opcode, pc);
     }
 
     @Override
     protected void readOperands(ClassFileReader reader) {
-        byte operand = reader.readByte();
+        operand = reader.readByte();
+    }
+
+    @Override
+    protected void postRead(ConstantPool cp) {
         setDesc(getDesc() + " " + operand);
     }
     
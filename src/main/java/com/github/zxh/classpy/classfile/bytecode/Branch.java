@@ -1,10 +1,13 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
 import com.github.zxh.classpy.classfile.ClassFileReader;
+import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 public class Branch extends Instruction {
 
+    private int jmpTo;
+
     public Branch(Opcode opcode, int pc) {
         super(opcode, pc);
     }
@@ -12,7 +15,11 @@ public class Branch extends Instruction {
     @Override
     protected void readOperands(ClassFileReader reader) {
         short offset = reader.readShort();
-        int jmpTo = pc + offset;
+        jmpTo = pc + offset;
+    }
+
+    @Override
+    protected void postRead(ConstantPool cp) {
         setDesc(getDesc() + " " + jmpTo);
     }
     
@@ -0,0 +1,221 @@
+package com.github.zxh.classpy.classfile.bytecode;
+
+import com.github.zxh.classpy.classfile.jvm.Opcode;
+import com.github.zxh.classpy.common.ParseException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Iterates the instructions of a code array without creating objects.
+ * Operands are read from the code bytes on request, as primitives.
+ *
+ * <pre>
+ * BytecodeCursor cursor = codeAttr.code().cursor();
+ * while (cursor.next()) {
+ *     if (cursor.getOpcode() == Opcode.invokestatic) {
+ *         int methodRefIndex = cursor.cpIndex();
+ *     }
+ * }
+ * </pre>
+ *
+ * For a wide instruction, getOpcode() returns the modified instruction
+ * (iload, iinc...) and isWide() returns true.
+ */
+public class BytecodeCursor {
+
+    private final ByteBuffer code;
+    private int pc = -1;
+    private int nextPc = 0;
+    private Opcode opcode;
+    private boolean wide;
+
+    /**
+     * @param code the code array, pc 0 is at index 0
+     */
+    public BytecodeCursor(ByteBuffer code) {
+        this.code = code.slice().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Moves to the next instruction.
+     * @return false if there are no more instructions
+     */
+    public boolean next() {
+        if (nextPc >= code.limit()) {
+            return false;
+        }
+
+        pc = nextPc;
+        opcode = Opcode.valueOf(Byte.toUnsignedInt(code.get(pc)));
+        wide = opcode == Opcode.wide;
+        if (wide) {
+            checkAvailable(2);
+            opcode = Opcode.valueOf(Byte.toUnsignedInt(code.get(pc + 1)));
+        }
+
+        // an instruction always advances pc and ends within the code,
+        // so malformed code can't make the caller loop
+        long length = instructionLength();
+        checkAvailable(length);
+        nextPc = pc + (int) length;
+        return true;
+    }
+
+    // switch counts are arbitrary ints in malformed code, so lengths are longs
+    private long instructionLength() {
+        if (wide) {
+            return opcode == Opcode.iinc ? 6 : 4;
+        }
+        switch (opcode) {
+            case tableswitch:
+                checkAvailable(switchBase() + 12 - pc);
+                long caseCount = (long) switchHigh() - switchLow() + 1;
+                if (caseCount <= 0) {
+                    throw new ParseException("Invalid tableswitch at pc " + pc + ": high < low");
+                }
+                return switchBase() + 12 + 4 * caseCount - pc;
+            case lookupswitch:
+                checkAvailable(switchBase() + 8 - pc);
+                int pairCount = switchCaseCount();
+                if (pairCount < 0) {
+                    throw new ParseException("Invalid lookupswitch at pc " + pc + ": npairs < 0");
+                }
+                return switchBase() + 8 + 8L * pairCount - pc;
+            default:
+                return 1 + opcode.operandCount;
+        }
+    }
+
+    private void checkAvailable(long length) {
+        if (length <= 0 || length > code.limit() - pc) {
+            throw new ParseException("Truncated instruction at pc " + pc);
+        }
+    }
+
+    public int getPc() {
+        return pc;
+    }
+
+    /**
+     * @return pc of the next instruction
+     */
+    public int getNextPc() {
+        return nextPc;
+    }
+
+    public Opcode getOpcode() {
+        return opcode;
+    }
+
+    public boolean isWide() {
+        return wide;
+    }
+
+    public int getLength() {
+        return nextPc - pc;
+    }
+
+    // 8-bit unsigned operand, like the index of ldc or the type of newarray
+    public int u1() {
+        return Byte.toUnsignedInt(code.get(pc + 1));
+    }
+
+    // 8-bit signed operand of bipush
+    public int s1() {
+        return code.get(pc + 1);
+    }
+
+    // 16-bit unsigned operand
+    public int u2() {
+        return Short.toUnsignedInt(code.getShort(pc + 1));
+    }
+
+    // 16-bit signed operand of sipush
+    public int s2() {
+        return code.getShort(pc + 1);
+    }
+
+    /**
+     * Returns the constant pool index of ldc, ldc_w, getfield, invokevirtual...
+     * @return
+     */
+    public int cpIndex() {
+        return opcode == Opcode.ldc ? u1() : u2();
+    }
+
+    /**
+     * Returns the local variable index of load, store, ret and iinc.
+     * @return
+     */
+    public int localIndex() {
+        return wide ? Short.toUnsignedInt(code.getShort(pc + 2)) : u1();
+    }
+
+    /**
+     * Returns the constant of iinc.
+     * @return
+     */
+    public int iincConst() {
+        return wide ? code.getShort(pc + 4) : code.get(pc + 2);
+    }
+
+    /**
+     * Returns the target pc of if*, goto, jsr, goto_w and jsr_w.
+     * @return
+     */
+    public int branchTarget() {
+        if (opcode == Opcode.goto_w || opcode == Opcode.jsr_w) {
+            return pc + code.getInt(pc + 1);
+        }
+        return pc + s2();
+    }
+
+    // switch operands start at the first 4-byte aligned pc after opcode
+    private int switchBase() {
+        return (pc + 4) & ~3;
+    }
+
+    /**
+     * Returns the default target pc of tableswitch and lookupswitch.
+     * @return
+     */
+    public int switchDefault() {
+        return pc + code.getInt(switchBase());
+    }
+
+    public int switchLow() {
+        return code.getInt(switchBase() + 4);
+    }
+
+    public int switchHigh() {
+        return code.getInt(switchBase() + 8);
+    }
+
+    /**
+     * Returns the number of jump offsets (tableswitch)
+     * or match-offset pairs (lookupswitch).
+     * @return
+     */
+    public int switchCaseCount() {
+        if (opcode == Opcode.tableswitch) {
+            return switchHigh() - switchLow() + 1;
+        }
+        return code.getInt(switchBase() + 4);
+    }
+
+    public int switchMatch(int i) {
+        if (opcode == Opcode.tableswitch) {
+            return switchLow() + i;
+        }
+        return code.getInt(switchBase() + 8 + 8 * i);
+    }
+
+    public int switchTarget(int i) {
+        if (opcode == Opcode.tableswitch) {
+            return pc + code.getInt(switchBase() + 12 + 4 * i);
+        }
+        return pc + code.getInt(switchBase() + 12 + 8 * i);
+    }
+
+}
@@ -1,18 +1,26 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
 import com.github.zxh.classpy.classfile.ClassFileReader;
+import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 public class Iinc extends Instruction {
 
+    private int index;
+    private int _const;
+
     public Iinc(Opcode opcode, int pc) {
         super(opcode, pc);
     }
     
     @Override
     protected void readOperands(ClassFileReader reader) {
-        int index = reader.readUnsignedByte();
-        int _const = reader.readByte();
+        index = reader.readUnsignedByte();
+        _const = reader.readByte();
+    }
+
+    @Override
+    protected void postRead(ConstantPool cp) {
         setDesc(getDesc() + " " + index + ", " + _const);
     }
     
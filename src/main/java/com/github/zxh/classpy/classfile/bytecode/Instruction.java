@@ -2,6 +2,7 @@ package com.github.zxh.classpy.classfile.bytecode;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
 import com.github.zxh.classpy.classfile.ClassFileReader;
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 /**
@@ -18,6 +19,13 @@ public class Instruction extends ClassFileComponent {
         setDesc(opcode.name());
     }
 
+    protected Instruction(Opcode opcode, int pc, Layout layout) {
+        super(layout);
+        this.opcode = opcode;
+        this.pc = pc;
+        setDesc(opcode.name());
+    }
+
     public int getPc() {
         return pc;
     }
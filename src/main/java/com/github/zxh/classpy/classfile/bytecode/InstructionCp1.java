@@ -1,6 +1,8 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
+import com.github.zxh.classpy.classfile.datatype.U1CpIndex;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 /**
@@ -8,18 +10,24 @@ import com.github.zxh.classpy.classfile.jvm.Opcode;
  */
 public class InstructionCp1 extends Instruction {
 
-    {
-        u1  ("opcode");
-        u1cp("operand");
-    }
+    private static final Layout LAYOUT = Layout.builder()
+            .u1  ("opcode")
+            .u1cp("operand")
+            .build();
+
+    private static final int OPERAND = LAYOUT.indexOf("operand");
 
     public InstructionCp1(Opcode opcode, int pc) {
-        super(opcode, pc);
+        super(opcode, pc, LAYOUT);
+    }
+
+    public U1CpIndex operand() {
+        return (U1CpIndex) super.get(OPERAND);
     }
 
     @Override
     protected void postRead(ConstantPool cp) {
-        setDesc(getDesc() + " " + super.get("operand").getDesc());
+        setDesc(getDesc() + " " + operand().getDesc());
     }
 
 }
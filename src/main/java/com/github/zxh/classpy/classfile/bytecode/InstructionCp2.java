@@ -1,6 +1,8 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
+import com.github.zxh.classpy.classfile.datatype.U2CpIndex;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 /**
@@ -8,17 +10,23 @@ import com.github.zxh.classpy.classfile.jvm.Opcode;
  */
 public class InstructionCp2 extends Instruction {
 
-    {
-        u1  ("opcode");
-        u2cp("operand");
-    }
+    private static final Layout LAYOUT = Layout.builder()
+            .u1  ("opcode")
+            .u2cp("operand")
+            .build();
+
+    private static final int OPERAND = LAYOUT.indexOf("operand");
 
     public InstructionCp2(Opcode opcode, int pc) {
-        super(opcode, pc);
+        super(opcode, pc, LAYOUT);
+    }
+
+    public U2CpIndex operand() {
+        return (U2CpIndex) super.get(OPERAND);
     }
 
     protected void postRead(ConstantPool cp) {
-        setDesc(getDesc() + " " + super.get("operand").getDesc());
+        setDesc(getDesc() + " " + operand().getDesc());
     }
     
 }
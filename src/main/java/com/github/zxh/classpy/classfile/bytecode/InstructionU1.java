@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
@@ -8,18 +9,20 @@ import com.github.zxh.classpy.classfile.jvm.Opcode;
  */
 public class InstructionU1 extends Instruction {
 
-    {
-        u1("opcode");
-        u1("operand");
-    }
+    private static final Layout LAYOUT = Layout.builder()
+            .u1("opcode")
+            .u1("operand")
+            .build();
+
+    private static final int OPERAND = LAYOUT.indexOf("operand");
 
     public InstructionU1(Opcode opcode, int pc) {
-        super(opcode, pc);
+        super(opcode, pc, LAYOUT);
     }
 
     @Override
     protected void postRead(ConstantPool cp) {
-        setDesc(getDesc() + " " + super.get("operand").getDesc());
+        setDesc(getDesc() + " " + super.get(OPERAND).getDesc());
     }
 
 }
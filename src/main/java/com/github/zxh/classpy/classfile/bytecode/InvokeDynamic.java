@@ -1,23 +1,26 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 public class InvokeDynamic extends Instruction {
 
-    {
-        u1  ("opcode");
-        u2cp("index");
-        u2  ("zero");
-    }
+    private static final Layout LAYOUT = Layout.builder()
+            .u1  ("opcode")
+            .u2cp("index")
+            .u2  ("zero")
+            .build();
+
+    private static final int INDEX = LAYOUT.indexOf("index");
 
     public InvokeDynamic(Opcode opcode, int pc) {
-        super(opcode, pc);
+        super(opcode, pc, LAYOUT);
     }
     
     @Override
     protected void postRead(ConstantPool cp) {
-        setDesc(getDesc() + " " + super.get("index").getDesc());
+        setDesc(getDesc() + " " + super.get(INDEX).getDesc());
     }
     
 }
@@ -1,26 +1,30 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 public class InvokeInterface extends Instruction {
 
-    {
-        u1  ("opcode");
-        u2cp("index");
-        u1  ("count");
-        u1  ("zero");
-    }
+    private static final Layout LAYOUT = Layout.builder()
+            .u1  ("opcode")
+            .u2cp("index")
+            .u1  ("count")
+            .u1  ("zero")
+            .build();
+
+    private static final int INDEX = LAYOUT.indexOf("index");
+    private static final int COUNT = LAYOUT.indexOf("count");
 
     public InvokeInterface(Opcode opcode, int pc) {
-        super(opcode, pc);
+        super(opcode, pc, LAYOUT);
     }
     
     @Override
     protected void postRead(ConstantPool cp) {
         setDesc(getDesc() + " "
-                + super.get("index").getDesc() + ", "
-                + super.getUInt("count"));
+                + super.get(INDEX).getDesc() + ", "
+                + super.getUInt(COUNT));
     }
     
 }
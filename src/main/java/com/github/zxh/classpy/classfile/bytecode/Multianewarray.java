@@ -1,25 +1,29 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.ClassFileReader;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 public class Multianewarray extends Instruction {
 
-    {
-        u1  ("opcode");
-        u2cp("index");
-        u1  ("dimensions");
-    }
+    private static final Layout LAYOUT = Layout.builder()
+            .u1  ("opcode")
+            .u2cp("index")
+            .u1  ("dimensions")
+            .build();
+
+    private static final int INDEX = LAYOUT.indexOf("index");
+    private static final int DIMENSIONS = LAYOUT.indexOf("dimensions");
 
     public Multianewarray(Opcode opcode, int pc) {
-        super(opcode, pc);
+        super(opcode, pc, LAYOUT);
     }
     
     @Override
     protected void readOperands(ClassFileReader reader) {
         setDesc(getDesc() + " "
-                + super.get("index").getDesc() + ", "
-                + super.getUInt("dimensions"));
+                + super.get(INDEX).getDesc() + ", "
+                + super.getUInt(DIMENSIONS));
     }
     
 }
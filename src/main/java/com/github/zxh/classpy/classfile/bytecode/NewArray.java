@@ -1,23 +1,26 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.common.ParseException;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 public class NewArray extends Instruction {
 
-    {
-        u1("opcode");
-        u1("atype");
-    }
+    private static final Layout LAYOUT = Layout.builder()
+            .u1("opcode")
+            .u1("atype")
+            .build();
+
+    private static final int ATYPE = LAYOUT.indexOf("atype");
 
     public NewArray(Opcode opcode, int pc) {
-        super(opcode, pc);
+        super(opcode, pc, LAYOUT);
     }
     
     @Override
     protected void postRead(ConstantPool cp) {
-        int atype = super.getUInt("atype");
+        int atype = super.getUInt(ATYPE);
         setDesc(getDesc() + " " + getArrayType(atype));
     }
     
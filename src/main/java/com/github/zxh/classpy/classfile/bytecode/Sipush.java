@@ -1,17 +1,24 @@
 package com.github.zxh.classpy.classfile.bytecode;
 
 import com.github.zxh.classpy.classfile.ClassFileReader;
+import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.jvm.Opcode;
 
 public class Sipush extends Instruction {
 
+    private int operand;
+
     public Sipush(Opcode opcode, int pc) {
         super(opcode, pc);
     }
 
     @Override
     protected void readOperands(ClassFileReader reader) {
-        short operand = reader.readShort();
+        operand = reader.readShort();
+    }
+
+    @Override
+    protected void postRead(ConstantPool cp) {
         setDesc(getDesc() + " " + operand);
     }
     
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 CONSTANT_Double_info {
     u1 tag;
@@ -9,15 +10,22 @@ CONSTANT_Double_info {
 */
 public class ConstantDoubleInfo extends ConstantInfo {
 
-    {
-        u4hex("high_bytes");
-        u4hex("low_bytes");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u4hex("high_bytes")
+            .u4hex("low_bytes")
+            .build();
+
+    private static final int HIGH_BYTES = LAYOUT.indexOf("high_bytes");
+    private static final int LOW_BYTES = LAYOUT.indexOf("low_bytes");
+
+    public ConstantDoubleInfo() {
+        super(LAYOUT);
     }
 
     @Override
     protected String loadDesc(ConstantPool cp) {
-        long high = super.getUInt("high_bytes");
-        long low = super.getUInt("low_bytes");
+        long high = super.getUInt(HIGH_BYTES);
+        long low = super.getUInt(LOW_BYTES);
         double d = Double.longBitsToDouble(high << 32 | low);
         return String.valueOf(d);
     }
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.datatype.U2;
 
 /*
@@ -11,15 +12,30 @@ CONSTANT_Fieldref_info {
 */
 public class ConstantFieldrefInfo extends ConstantInfo {
 
-    {
-        u2("class_index");
-        u2("name_and_type_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2("class_index")
+            .u2("name_and_type_index")
+            .build();
+
+    private static final int CLASS_INDEX = LAYOUT.indexOf("class_index");
+    private static final int NAME_AND_TYPE_INDEX = LAYOUT.indexOf("name_and_type_index");
+
+    public ConstantFieldrefInfo() {
+        super(LAYOUT);
+    }
+
+    public int getClassIndex() {
+        return super.getUInt(CLASS_INDEX);
+    }
+
+    public int getNameAndTypeIndex() {
+        return super.getUInt(NAME_AND_TYPE_INDEX);
     }
     
     @Override
     protected String loadDesc(ConstantPool cp) {
-        int classIndex = super.getUInt("class_index");
-        int nameAndTypeIndex = super.getUInt("name_and_type_index");
+        int classIndex = getClassIndex();
+        int nameAndTypeIndex = getNameAndTypeIndex();
 
         ConstantClassInfo classInfo = cp.getClassInfo(classIndex);
         String className = cp.getUtf8String(classInfo.getNameIndex());
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 CONSTANT_Float_info {
     u1 tag;
@@ -8,13 +9,19 @@ CONSTANT_Float_info {
 */
 public class ConstantFloatInfo extends ConstantInfo {
 
-    {
-        u4("bytes");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u4("bytes")
+            .build();
+
+    private static final int BYTES = LAYOUT.indexOf("bytes");
+
+    public ConstantFloatInfo() {
+        super(LAYOUT);
     }
     
     @Override
     protected String loadDesc(ConstantPool cp) {
-        float f = Float.intBitsToFloat(super.getUInt("bytes"));
+        float f = Float.intBitsToFloat(super.getUInt(BYTES));
         return Float.toString(f);
     }
     
@@ -1,6 +1,7 @@
 package com.github.zxh.classpy.classfile.constant;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.Layout;
 
 /*
 cp_info {
@@ -10,10 +11,19 @@ cp_info {
  */
 public abstract class ConstantInfo extends ClassFileComponent {
 
-    {
-        u1("tag");
+    protected static final Layout HEADER = Layout.builder()
+            .u1("tag")
+            .build();
+
+    protected ConstantInfo(Layout layout) {
+        super(layout);
     }
 
     protected abstract String loadDesc(ConstantPool cp);
+
+    @Override
+    protected void postRead(ConstantPool cp) {
+        setDesc(loadDesc(cp));
+    }
     
 }
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 CONSTANT_Integer_info {
     u1 tag;
@@ -8,13 +9,19 @@ CONSTANT_Integer_info {
 */
 public class ConstantIntegerInfo extends ConstantInfo {
 
-    {
-        u4("bytes");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u4("bytes")
+            .build();
+
+    private static final int BYTES = LAYOUT.indexOf("bytes");
+
+    public ConstantIntegerInfo() {
+        super(LAYOUT);
     }
 
     @Override
     protected String loadDesc(ConstantPool cp) {
-        int i = super.getUInt("bytes");
+        int i = super.getUInt(BYTES);
         return String.valueOf(i);
     }
     
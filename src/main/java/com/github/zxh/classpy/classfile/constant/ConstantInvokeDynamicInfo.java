@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.datatype.U2;
 
 /*
@@ -11,14 +12,20 @@ CONSTANT_InvokeDynamic_info {
 */
 public class ConstantInvokeDynamicInfo extends ConstantInfo {
 
-    {
-        u2("bootstrap_method_attr_index");
-        u2("name_and_type_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2("bootstrap_method_attr_index")
+            .u2("name_and_type_index")
+            .build();
+
+    private static final int NAME_AND_TYPE_INDEX = LAYOUT.indexOf("name_and_type_index");
+
+    public ConstantInvokeDynamicInfo() {
+        super(LAYOUT);
     }
     
     @Override
     protected String loadDesc(ConstantPool cp) {
-        int nameAndTypeIndex = super.getUInt("name_and_type_index");
+        int nameAndTypeIndex = super.getUInt(NAME_AND_TYPE_INDEX);
         return cp.getNameAndTypeInfo(nameAndTypeIndex).loadDesc(cp);
     }
     
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 import com.github.zxh.classpy.classfile.jvm.RefKind;
 
 /*
@@ -11,15 +12,22 @@ CONSTANT_MethodHandle_info {
 */
 public class ConstantMethodHandleInfo extends ConstantInfo {
 
-    {
-        u1("reference_kind");
-        u2("reference_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u1("reference_kind")
+            .u2("reference_index")
+            .build();
+
+    private static final int REFERENCE_KIND = LAYOUT.indexOf("reference_kind");
+    private static final int REFERENCE_INDEX = LAYOUT.indexOf("reference_index");
+
+    public ConstantMethodHandleInfo() {
+        super(LAYOUT);
     }
 
     @Override
     protected String loadDesc(ConstantPool cp) {
-        int referenceKind = super.getUInt("reference_kind");
-        int referenceIndex = super.getUInt("reference_index");
+        int referenceKind = super.getUInt(REFERENCE_KIND);
+        int referenceIndex = super.getUInt(REFERENCE_INDEX);
 
         RefKind refKind = RefKind.valueOf(referenceKind);
         switch (refKind) {
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 CONSTANT_MethodType_info {
     u1 tag;
@@ -8,13 +9,19 @@ CONSTANT_MethodType_info {
 */
 public class ConstantMethodTypeInfo extends ConstantInfo {
 
-    {
-        u2("descriptor_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2("descriptor_index")
+            .build();
+
+    private static final int DESCRIPTOR_INDEX = LAYOUT.indexOf("descriptor_index");
+
+    public ConstantMethodTypeInfo() {
+        super(LAYOUT);
     }
     
     @Override
     protected String loadDesc(ConstantPool cp) {
-        int descriptorIndex = super.getUInt("descriptor_index");
+        int descriptorIndex = super.getUInt(DESCRIPTOR_INDEX);
         return cp.getUtf8String(descriptorIndex);
     }
     
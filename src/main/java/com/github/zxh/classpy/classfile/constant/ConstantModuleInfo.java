@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 CONSTANT_Module_info {
     u1 tag;
@@ -8,12 +9,18 @@ CONSTANT_Module_info {
 */
 public class ConstantModuleInfo extends ConstantInfo {
 
-    {
-        u2("name_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2("name_index")
+            .build();
+
+    private static final int NAME_INDEX = LAYOUT.indexOf("name_index");
+
+    public ConstantModuleInfo() {
+        super(LAYOUT);
     }
 
     public int getNameIndex() {
-        return super.getUInt("name_index");
+        return super.getUInt(NAME_INDEX);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 CONSTANT_NameAndType_info {
     u1 tag;
@@ -9,19 +10,30 @@ CONSTANT_NameAndType_info {
 */
 public class ConstantNameAndTypeInfo extends ConstantInfo {
 
-    {
-        u2("name_index");
-        u2("descriptor_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2("name_index")
+            .u2("descriptor_index")
+            .build();
+
+    private static final int NAME_INDEX = LAYOUT.indexOf("name_index");
+    private static final int DESCRIPTOR_INDEX = LAYOUT.indexOf("descriptor_index");
+
+    public ConstantNameAndTypeInfo() {
+        super(LAYOUT);
     }
 
     public int getNameIndex() {
-        return super.getUInt("name_index");
+        return super.getUInt(NAME_INDEX);
+    }
+
+    public int getDescriptorIndex() {
+        return super.getUInt(DESCRIPTOR_INDEX);
     }
 
     @Override
     protected String loadDesc(ConstantPool cp) {
-        String name = cp.getUtf8String(super.getUInt("name_index"));
-        String type = cp.getUtf8String(super.getUInt("descriptor_index"));
+        String name = cp.getUtf8String(getNameIndex());
+        String type = cp.getUtf8String(getDescriptorIndex());
         return name + "&" + type;
     }
     
@@ -1,36 +1,50 @@
 package com.github.zxh.classpy.classfile.constant;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.attribute.AttributeFactory;
+import com.github.zxh.classpy.classfile.attribute.AttributeInfo;
 import com.github.zxh.classpy.common.ParseException;
 import com.github.zxh.classpy.classfile.ClassFileReader;
-import com.github.zxh.classpy.classfile.datatype.U2;
+import com.github.zxh.classpy.classfile.datatype.UInt;
 import com.github.zxh.classpy.common.FileComponent;
 import com.github.zxh.classpy.helper.StringHelper;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * The constant pool in class file.
  */
 public class ConstantPool extends ClassFileComponent {
     
-    private final U2 cpCount;
+    private final UInt cpCount;
     private ConstantInfo[] constants;
+    private List<FileComponent> constantList; // constants without the unusable entries
+    private final Map<Class<?>, List<?>> constantsByType = new ConcurrentHashMap<>();
+    // resolved on demand, MemberRef is immutable so racing threads
+    // at worst resolve the same ref twice
+    private MemberRef[] memberRefs;
+    // attribute names and suppliers by attribute_name_index, cached the same way
+    private String[] attributeNames;
+    private Supplier<?>[] attributeSuppliers;
 
-    public ConstantPool(U2 cpCount) {
+    public ConstantPool(UInt cpCount) {
         this.cpCount = cpCount;
     }
     
     @Override
     protected void readContent(ClassFileReader reader) {
+        // each constant takes at least 3 bytes
+        reader.checkCount("constant_pool_count", cpCount.getValue() - 1, 3);
         constants = new ConstantInfo[cpCount.getValue()];
+        reader.setConstantPool(this);
         // The constant_pool table is indexed from 1 to constant_pool_count - 1. 
         for (int i = 1; i < cpCount.getValue(); i++) {
             ConstantInfo c = readConstantInfo(reader);
-            setConstantName(c, i);
             constants[i] = c;
             // http://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html#jvms-4.4.5
             // All 8-byte constants take up two entries in the constant_pool table of the class file.
@@ -41,8 +55,17 @@ public class ConstantPool extends ClassFileComponent {
                 i++;
             }
         }
-        loadConstantDesc();
-        reader.setConstantPool(this);
+
+        List<FileComponent> list = new ArrayList<>(constants.length);
+        for (ConstantInfo c : constants) {
+            if (c != null) {
+                list.add(c);
+            }
+        }
+        constantList = Collections.unmodifiableList(list);
+        memberRefs = new MemberRef[constants.length];
+        attributeNames = new String[constants.length];
+        attributeSuppliers = new Supplier<?>[constants.length];
     }
     
     private ConstantInfo readConstantInfo(ClassFileReader reader) {
@@ -63,19 +86,104 @@ public class ConstantPool extends ClassFileComponent {
         constant.setName(idxStr + " (" + constantName + ")");
     }
     
-    private void loadConstantDesc() {
-        for (ConstantInfo c : constants) {
-            if (c != null) {
-                c.setDesc(c.loadDesc(this));
+    @Override
+    protected void postRead(ConstantPool cp) {
+        for (int i = 1; i < constants.length; i++) {
+            if (constants[i] != null) {
+                setConstantName(constants[i], i);
             }
         }
     }
 
     @Override
     public List<FileComponent> getComponents() {
-        return Arrays.stream(constants)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        label(); // names constants
+        return constantList != null ? constantList : super.getComponents();
+    }
+
+    /**
+     * Returns all constants of the given type, in index order.
+     * Subclasses are not included, so getConstants(ConstantMethodrefInfo.class)
+     * doesn't return CONSTANT_InterfaceMethodref_info.
+     * @param type
+     * @param <T>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends ConstantInfo> List<T> getConstants(Class<T> type) {
+        return (List<T>) constantsByType.computeIfAbsent(type, t -> {
+            List<T> list = new ArrayList<>();
+            for (ConstantInfo c : constants) {
+                if (c != null && c.getClass() == type) {
+                    list.add(type.cast(c));
+                }
+            }
+            return Collections.unmodifiableList(list);
+        });
+    }
+
+    /**
+     * Resolves owner, name and descriptor of a Fieldref, Methodref or
+     * InterfaceMethodref constant. The result is cached.
+     * @param index
+     * @return
+     */
+    public MemberRef getMemberRef(int index) {
+        MemberRef ref = memberRefs[checkIndex(index)];
+        if (ref == null) {
+            ConstantInfo c = constants[index];
+            if (!(c instanceof ConstantFieldrefInfo)) {
+                throw new ParseException("Constant#" + index
+                        + " is " + c.getClass().getSimpleName()
+                        + " not a member reference!");
+            }
+            ConstantFieldrefInfo refInfo = (ConstantFieldrefInfo) c;
+            ConstantClassInfo classInfo = getClassInfo(refInfo.getClassIndex());
+            ConstantNameAndTypeInfo nameAndType = getNameAndTypeInfo(refInfo.getNameAndTypeIndex());
+            ref = new MemberRef(getUtf8String(classInfo.getNameIndex()),
+                    getUtf8String(nameAndType.getNameIndex()),
+                    getUtf8String(nameAndType.getDescriptorIndex()));
+            memberRefs[index] = ref;
+        }
+        return ref;
+    }
+
+    /**
+     * Returns the supplier of attributes named by the Utf8 constant at
+     * index, looked up in AttributeFactory on first use.
+     * @param index attribute_name_index
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public Supplier<? extends AttributeInfo> getAttributeSupplier(int index) {
+        Supplier<?> supplier = attributeSuppliers[checkIndex(index)];
+        if (supplier == null) {
+            supplier = AttributeFactory.getSupplier(getAttributeName(index));
+            attributeSuppliers[index] = supplier;
+        }
+        return (Supplier<? extends AttributeInfo>) supplier;
+    }
+
+    /**
+     * Returns the Utf8 constant at index, which is decoded only once.
+     * @param index attribute_name_index
+     * @return
+     */
+    public String getAttributeName(int index) {
+        String name = attributeNames[checkIndex(index)];
+        if (name == null) {
+            name = getUtf8String(index);
+            attributeNames[index] = name;
+        }
+        return name;
+    }
+
+    public ConstantInfo getConstantInfo(int index) {
+        return constants[checkIndex(index)];
+    }
+
+    public String getClassName(int index) {
+        return getUtf8String(getClassInfo(index).getNameIndex());
     }
 
     public String getUtf8String(int index) {
@@ -107,7 +215,7 @@ public class ConstantPool extends ClassFileComponent {
     }
     
     private <T> T getConstant(Class<T> classOfT, int index) {
-        ConstantInfo c = constants[index];
+        ConstantInfo c = constants[checkIndex(index)];
         if (c.getClass() != classOfT) {
             throw new ParseException("Constant#" + index
                     + " is " + c.getClass().getSimpleName()
@@ -117,8 +225,15 @@ public class ConstantPool extends ClassFileComponent {
     }
     
     public String getConstantDesc(int index) {
-        ConstantInfo c = constants[index];
+        ConstantInfo c = constants[checkIndex(index)];
         return c.getDesc();
     }
+
+    private int checkIndex(int index) {
+        if (index <= 0 || index >= constants.length || constants[index] == null) {
+            throw new ParseException("Invalid constant index: " + index);
+        }
+        return index;
+    }
     
 }
@@ -1,5 +1,6 @@
 package com.github.zxh.classpy.classfile.constant;
 
+import com.github.zxh.classpy.classfile.Layout;
 /*
 CONSTANT_String_info {
     u1 tag;
@@ -8,13 +9,19 @@ CONSTANT_String_info {
 */
 public class ConstantStringInfo extends ConstantInfo {
 
-    {
-        u2("string_index");
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2("string_index")
+            .build();
+
+    private static final int STRING_INDEX = LAYOUT.indexOf("string_index");
+
+    public ConstantStringInfo() {
+        super(LAYOUT);
     }
 
     @Override
     protected String loadDesc(ConstantPool cp) {
-        int stringIndex = super.getUInt("string_index");
+        int stringIndex = super.getUInt(STRING_INDEX);
         return cp.getUtf8Info(stringIndex).loadDesc(cp);
     }
     
@@ -1,14 +1,11 @@
 package com.github.zxh.classpy.classfile.constant;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
-import com.github.zxh.classpy.common.ParseException;
-import com.github.zxh.classpy.classfile.datatype.U2;
+import com.github.zxh.classpy.classfile.Layout;
+import com.github.zxh.classpy.classfile.datatype.UInt;
 import com.github.zxh.classpy.classfile.ClassFileReader;
-import com.github.zxh.classpy.classfile.jvm.Mutf8Decoder;
 import com.github.zxh.classpy.helper.StringHelper;
 
-import java.io.IOException;
-
 /*
 CONSTANT_Utf8_info {
     u1 tag;
@@ -18,44 +15,57 @@ CONSTANT_Utf8_info {
 */
 public class ConstantUtf8Info extends ConstantInfo {
 
-    {
-        U2 length = new U2();
+    private static final Layout LAYOUT = Layout.builder(HEADER)
+            .u2       ("length")
+            .dependent("bytes", Mutf8::new)
+            .build();
+
+    private static final int BYTES = LAYOUT.indexOf("bytes");
 
-        add("length", length);
-        add("bytes", new Mutf8(length));
+    public ConstantUtf8Info() {
+        super(LAYOUT);
     }
 
     public String getString() {
-        return ((Mutf8) super.get("bytes")).str;
+        return ((Mutf8) super.get(BYTES)).getString();
     }
 
     @Override
     protected String loadDesc(ConstantPool cp) {
-        Mutf8 bytes = (Mutf8) super.get("bytes");
+        Mutf8 bytes = (Mutf8) super.get(BYTES);
         return StringHelper.cutAndAppendEllipsis(bytes.getDesc(), 100);
     }
 
 
-    // UTF8 String in constant pool.
-    private class Mutf8 extends ClassFileComponent {
+    // UTF8 String in constant pool, only the byte range is kept
+    // until the string is used.
+    private static class Mutf8 extends ClassFileComponent {
 
-        private final U2 length;
+        private final UInt length;
+        private ClassFileReader reader;
         private String str;
 
-        public Mutf8(U2 length) {
+        public Mutf8(UInt length) {
             this.length = length;
         }
 
         @Override
         protected void readContent(ClassFileReader reader) {
-            byte[] bytes = reader.readBytes(length.getValue());
-            try {
-                str = Mutf8Decoder.decodeMutf8(bytes);
-            } catch (IOException e) {
-                throw new ParseException(e);
+            this.reader = reader;
+            reader.skipBytes(length.getValue());
+        }
+
+        // racing threads may both decode the string, which is harmless
+        String getString() {
+            if (str == null) {
+                str = reader.getSymbol(getOffset(), length.getValue());
             }
+            return str;
+        }
 
-            setDesc(str);
+        @Override
+        protected void postRead(ConstantPool cp) {
+            setDesc(getString());
         }
 
     }
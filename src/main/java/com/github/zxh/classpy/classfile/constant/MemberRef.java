@@ -0,0 +1,25 @@
+package com.github.zxh.classpy.classfile.constant;
+
+/**
+ * Resolved CONSTANT_Fieldref_info, CONSTANT_Methodref_info or
+ * CONSTANT_InterfaceMethodref_info. Class names are internal names
+ * like java/lang/Object.
+ */
+public class MemberRef {
+
+    public final String owner;
+    public final String name;
+    public final String descriptor;
+
+    MemberRef(String owner, String name, String descriptor) {
+        this.owner = owner;
+        this.name = name;
+        this.descriptor = descriptor;
+    }
+
+    @Override
+    public String toString() {
+        return owner + "." + name + ":" + descriptor;
+    }
+
+}
@@ -3,12 +3,15 @@ package com.github.zxh.classpy.classfile.datatype;
 import com.github.zxh.classpy.classfile.ClassFileComponent;
 import com.github.zxh.classpy.classfile.ClassFileReader;
 
+import java.nio.ByteBuffer;
+
 /**
  * Unparsed bytes.
  */
 public class Bytes extends ClassFileComponent {
 
     private UInt count;
+    private ClassFileReader reader;
 
     public Bytes(UInt count) {
         this.count = count;
@@ -16,7 +19,17 @@ public class Bytes extends ClassFileComponent {
 
     @Override
     protected void readContent(ClassFileReader reader) {
+        this.reader = reader;
         reader.skipBytes(count.getValue());
     }
 
+    /**
+     * Returns a read-only view of the bytes. The view shares the class
+     * file data, nothing is copied.
+     * @return
+     */
+    public ByteBuffer getBytes() {
+        return reader.slice(getOffset(), getLength());
+    }
+
 }
@@ -2,58 +2,79 @@ package com.github.zxh.classpy.classfile.datatype;
 
 import com.github.zxh.classpy.classfile.ClassFileComponent;
 import com.github.zxh.classpy.classfile.ClassFileReader;
-import com.github.zxh.classpy.common.ParseException;
-import com.github.zxh.classpy.classfile.attribute.AttributeFactory;
 import com.github.zxh.classpy.classfile.constant.ConstantPool;
 import com.github.zxh.classpy.classfile.attribute.AttributeInfo;
 import com.github.zxh.classpy.common.FileComponent;
 import com.github.zxh.classpy.helper.StringHelper;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 /**
  * Array of class components.
  */
 public class Table extends ClassFileComponent {
 
     private final UInt length;
-    private final Class<? extends ClassFileComponent> entryClass;
+    private final Supplier<? extends ClassFileComponent> entrySupplier; // null for attributes
 
-    public Table(UInt length, Class<? extends ClassFileComponent> entryClass) {
+    public Table(UInt length, Supplier<? extends ClassFileComponent> entrySupplier) {
         this.length = length;
-        this.entryClass = entryClass;
+        this.entrySupplier = entrySupplier;
+    }
+
+    /**
+     * Creates a table of attribute_info.
+     * @param length
+     */
+    public Table(UInt length) {
+        this(length, null);
     }
     
     @Override
     protected void readContent(ClassFileReader reader) {
-        try {
-            for (int i = 0; i < length.getValue(); i++) {
-                super.add(readEntry(reader));
-            }
-        } catch (ReflectiveOperationException e) {
-            throw new ParseException(e);
+        // attribute_info takes at least 6 bytes, other entries at least 1
+        reader.checkCount("table length", length.getValue(), entrySupplier == null ? 6 : 1);
+        for (int i = 0; i < length.getValue(); i++) {
+            super.add(readEntry(reader));
         }
     }
 
-    private ClassFileComponent readEntry(ClassFileReader reader) throws ReflectiveOperationException {
-        if (entryClass == AttributeInfo.class) {
+    private ClassFileComponent readEntry(ClassFileReader reader) {
+        if (entrySupplier == null) {
             return readAttributeInfo(reader);
         } else {
-            ClassFileComponent c = entryClass.newInstance();
+            ClassFileComponent c = entrySupplier.get();
             c.read(reader);
             return c;
         }
     }
     
     private AttributeInfo readAttributeInfo(ClassFileReader reader) {
-        int attrNameIndex = reader.getShort(reader.getPosition());
-        String attrName = reader.getConstantPool().getUtf8String(attrNameIndex);
-        
-        AttributeInfo attr = AttributeFactory.create(attrName);
-        attr.setName(attrName);
-        attr.read(reader);
+        int attrNameIndex = Short.toUnsignedInt(reader.getShort(reader.getPosition()));
+        ConstantPool cp = reader.getConstantPool();
+
+        AttributeInfo attr = cp.getAttributeSupplier(attrNameIndex).get();
+        attr.setName(cp.getAttributeName(attrNameIndex));
+        if (reader.isLazyAttributes()) {
+            attr.skip(reader);
+        } else {
+            attr.read(reader);
+        }
         
         return attr;
     }
 
+    /**
+     * Entries are named by this table, so the table is labelled before
+     * its entries are returned.
+     */
+    @Override
+    public List<FileComponent> getComponents() {
+        label();
+        return super.getComponents();
+    }
+
     @Override
     protected void postRead(ConstantPool cp) {
         int i = 0;
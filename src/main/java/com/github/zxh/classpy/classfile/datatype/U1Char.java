@@ -0,0 +1,12 @@
+package com.github.zxh.classpy.classfile.datatype;
+
+/**
+ * U1 displayed as char, like element_value.tag.
+ */
+public class U1Char extends UInt {
+
+    public U1Char() {
+        super(READ_U1, (val, cp) -> Character.toString((char) val.intValue()));
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.github.zxh.classpy.classfile.datatype;
+
+import com.github.zxh.classpy.classfile.ClassFileComponent;
+import com.github.zxh.classpy.classfile.ClassFileReader;
+import com.github.zxh.classpy.common.FileComponent;
+import com.github.zxh.classpy.helper.StringHelper;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Array of u2, like interfaces or exception_index_table. The values are
+ * kept in an int[], entry components are created only when they are
+ * requested (for display).
+ */
+public class U2Array extends ClassFileComponent {
+
+    private final UInt length;
+    private final Supplier<? extends UInt> entrySupplier;
+    private ClassFileReader reader;
+    private int[] values;
+    private volatile boolean materialized;
+
+    public U2Array(UInt length, Supplier<? extends UInt> entrySupplier) {
+        this.length = length;
+        this.entrySupplier = entrySupplier;
+    }
+
+    @Override
+    protected void readContent(ClassFileReader reader) {
+        this.reader = reader;
+        reader.checkCount("array length", length.getValue(), 2);
+        values = reader.readUnsignedShorts(length.getValue());
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int getValue(int index) {
+        return values[index];
+    }
+
+    @Override
+    public boolean hasComponents() {
+        return values.length > 0;
+    }
+
+    @Override
+    public List<FileComponent> getComponents() {
+        if (!materialized) {
+            materialize();
+        }
+        return super.getComponents();
+    }
+
+    private synchronized void materialize() {
+        if (materialized) {
+            return;
+        }
+
+        ClassFileReader entryReader = reader.fork(getOffset());
+        for (int i = 0; i < values.length; i++) {
+            UInt entry = entrySupplier.get();
+            entry.read(entryReader);
+            entry.setName(StringHelper.formatIndex(values.length, i));
+            add(entry);
+        }
+        materialized = true;
+    }
+
+}
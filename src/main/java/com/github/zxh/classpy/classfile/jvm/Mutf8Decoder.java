@@ -1,30 +1,92 @@
 package com.github.zxh.classpy.classfile.jvm;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
 
 public class Mutf8Decoder {
     
     /**
      * Decode modified UTF-8 string from byte[].
-     * todo: optimize
      * 
      * @param bytes
      * @return 
      * @throws java.io.IOException 
      */
     public static String decodeMutf8(byte[] bytes) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length + 2);
-        DataOutputStream dos = new DataOutputStream(baos);
-        dos.writeShort(bytes.length);
-        dos.write(bytes);
+        return decodeMutf8(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * Decode modified UTF-8 string from length bytes of buf starting at
+     * offset, like DataInput.readUTF() does. The position of buf is not
+     * changed. Supplementary characters are encoded as surrogate pairs in
+     * modified UTF-8, each surrogate becomes one char of the result.
+     *
+     * @param buf
+     * @param offset
+     * @param length
+     * @return
+     * @throws java.io.IOException if bytes are malformed
+     */
+    public static String decodeMutf8(ByteBuffer buf, int offset, int length) throws IOException {
+        char[] chars = new char[length];
+        int end = offset + length;
+        int i = offset;
+        int n = 0;
+
+        // ASCII fast path
+        while (i < end) {
+            int b = buf.get(i);
+            if (b < 0) {
+                break;
+            }
+            chars[n++] = (char) b;
+            i++;
+        }
+
+        while (i < end) {
+            int b = buf.get(i) & 0xFF;
+            switch (b >> 4) {
+                case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                    // 0xxxxxxx
+                    chars[n++] = (char) b;
+                    i++;
+                    break;
+                case 12: case 13: {
+                    // 110x xxxx   10xx xxxx
+                    if (i + 2 > end) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    int b2 = buf.get(i + 1);
+                    if ((b2 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (i - offset + 1));
+                    }
+                    chars[n++] = (char) (((b & 0x1F) << 6) | (b2 & 0x3F));
+                    i += 2;
+                    break;
+                }
+                case 14: {
+                    // 1110 xxxx  10xx xxxx  10xx xxxx
+                    if (i + 3 > end) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    int b2 = buf.get(i + 1);
+                    int b3 = buf.get(i + 2);
+                    if ((b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (i - offset + 2));
+                    }
+                    chars[n++] = (char) (((b & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F));
+                    i += 3;
+                    break;
+                }
+                default:
+                    // 10xx xxxx,  1111 xxxx
+                    throw new UTFDataFormatException("malformed input around byte " + (i - offset));
+            }
+        }
 
-        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-        DataInputStream dis = new DataInputStream(bais);
-        return dis.readUTF();
+        return new String(chars, 0, n);
     }
     
 }
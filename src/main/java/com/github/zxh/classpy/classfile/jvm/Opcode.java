@@ -225,6 +225,14 @@ public enum Opcode {
     public final int opcode;
     public final int operandCount;
 
+    // indexed by opcode, values() would clone the array on every lookup
+    private static final Opcode[] OPCODES = new Opcode[256];
+    static {
+        for (Opcode op : values()) {
+            OPCODES[op.opcode] = op;
+        }
+    }
+
     Opcode(int opcode, int operandCount) {
         this.opcode = opcode;
         this.operandCount = operandCount;
@@ -232,8 +240,8 @@ public enum Opcode {
     
     
     public static Opcode valueOf(int opcode) {
-        if (opcode < 0xca) {
-            return values()[opcode];
+        if (opcode >= 0 && opcode < 0xca) {
+            return OPCODES[opcode];
         } else {
             throw new ParseException("Invalid opcode: " + opcode);
         }
@@ -0,0 +1,281 @@
+package com.github.zxh.classpy.cli;
+
+import com.github.zxh.classpy.classfile.ClassFileParser;
+import com.github.zxh.classpy.classfile.ClassSummary;
+import com.github.zxh.classpy.common.FileComponent;
+import com.github.zxh.classpy.helper.StreamHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Parses or decompiles all classes of jars, directories and class files
+ * on a fork-join pool. Each input and each class is a task of its own,
+ * a jar is open only while its classes are processed.
+ *
+ * A class which can't be read, parsed or decompiled is recorded as
+ * an error and doesn't stop the job.
+ *
+ * Classes are named after the index and file name of their input, so
+ * inputs with the same file name don't overwrite each other's results:
+ * <pre>
+ * 0-foo.jar/a/B.class     a/B.class in the 1st input foo.jar
+ * 1-classes/a/B.class     a/B.class in the 2nd input, directory classes
+ * 2-C.class               the 3rd input, class file C.class
+ * </pre>
+ */
+public class BatchJob {
+
+    public enum Mode {
+        TREE(".txt"),    // parsed tree, like the GUI or javap -v
+        JAVA(".java"),   // ClassFile.generateJava()
+        SUMMARY(null),   // one line per class, written to summary.tsv
+        ;
+
+        private final String extension;
+
+        Mode(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private final Mode mode;
+    private final BatchOutput output; // null to discard results
+    private final ClassFileParser parser = new ClassFileParser();
+    private final Queue<String> summaryLines = new ConcurrentLinkedQueue<>();
+    private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+    private final Set<String> outputNames = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger classCount = new AtomicInteger();
+    private final AtomicLong byteCount = new AtomicLong();
+    private long elapsedNanos;
+
+    /**
+     * @param mode
+     * @param output where results are written, or null to discard them
+     */
+    public BatchJob(Mode mode, BatchOutput output) {
+        this.mode = mode;
+        this.output = output;
+    }
+
+    /**
+     * Processes all inputs, then writes summary.tsv (SUMMARY mode) and
+     * errors.txt (if any class failed) to the output. The output is not closed.
+     * @param inputs jars, directories or class files
+     * @param pool
+     * @throws IOException if summary.tsv or errors.txt can't be written
+     */
+    public void run(List<Path> inputs, ForkJoinPool pool) throws IOException {
+        long start = System.nanoTime();
+        List<InputTask> tasks = IntStream.range(0, inputs.size())
+                .mapToObj(i -> new InputTask(inputs.get(i), i + "-" + inputs.get(i).getFileName()))
+                .collect(Collectors.toList());
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        elapsedNanos = System.nanoTime() - start;
+
+        if (output != null) {
+            if (mode == Mode.SUMMARY) {
+                output.write("summary.tsv", joinSorted(summaryLines));
+            }
+            if (!errors.isEmpty()) {
+                output.write("errors.txt", joinSorted(errors));
+            }
+        }
+    }
+
+    private static String joinSorted(Queue<String> lines) {
+        return lines.stream().sorted()
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    /**
+     * @return lines of summary.tsv in no particular order
+     */
+    public List<String> getSummaryLines() {
+        return new ArrayList<>(summaryLines);
+    }
+
+    /**
+     * @return class and error message of each failed class
+     */
+    public List<String> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    public int getClassCount() {
+        return classCount.get();
+    }
+
+    public long getByteCount() {
+        return byteCount.get();
+    }
+
+    // like: 1234 classes (2 failed), 5.6 MB in 0.78 s: 1582 classes/s, 7.2 MB/s
+    public String getThroughputSummary() {
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        double megabytes = byteCount.get() / (1024.0 * 1024.0);
+        return String.format("%d classes (%d failed), %.1f MB in %.2f s: %.0f classes/s, %.1f MB/s",
+                classCount.get(), errors.size(), megabytes, seconds,
+                classCount.get() / seconds, megabytes / seconds);
+    }
+
+    private void addError(String name, Throwable e) {
+        errors.add(name + ": " + e);
+    }
+
+    private static boolean isClassFile(Path file) {
+        return file.toString().endsWith(".class") && Files.isRegularFile(file);
+    }
+
+    // result written to the output, or null
+    private String process(String name, ByteBuffer data) {
+        switch (mode) {
+            case SUMMARY:
+                ClassSummary s = parser.scan(data);
+                summaryLines.add(String.join("\t", name, s.thisClass,
+                        s.majorVersion + "." + s.minorVersion,
+                        String.valueOf(s.superClass),
+                        String.valueOf(s.fields.size()),
+                        String.valueOf(s.methods.size())));
+                return null;
+            case JAVA:
+                return parser.parse(data).generateJava();
+            default:
+                StringBuilder buf = new StringBuilder();
+                dump(parser.parse(data), "", buf);
+                return buf.toString();
+        }
+    }
+
+    private static void dump(FileComponent fc, String indent, StringBuilder buf) {
+        buf.append(indent).append(fc).append('\n');
+        for (FileComponent c : fc.getComponents()) {
+            dump(c, indent + "  ", buf);
+        }
+    }
+
+
+    private interface ClassSource {
+        ByteBuffer read() throws IOException;
+    }
+
+    @SuppressWarnings("serial")
+    private class ClassTask extends RecursiveAction {
+
+        private final String name; // like 0-foo.jar/a/b/C.class
+        private final ClassSource source;
+
+        ClassTask(String name, ClassSource source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                ByteBuffer data = source.read();
+                byteCount.addAndGet(data.remaining());
+                String result = process(name, data);
+                if (result != null && output != null) {
+                    String baseName = name.substring(0, name.length() - ".class".length());
+                    String outputName = baseName + mode.extension;
+                    if (!outputNames.add(outputName)) { // like duplicate entries of a jar
+                        throw new IOException("Duplicate output name: " + outputName);
+                    }
+                    output.write(outputName, result);
+                }
+            } catch (IOException | RuntimeException e) {
+                addError(name, e);
+            } finally {
+                classCount.incrementAndGet();
+            }
+        }
+
+    }
+
+    @SuppressWarnings("serial")
+    private class InputTask extends RecursiveAction {
+
+        private final Path input;
+        private final String name; // like 0-foo.jar
+
+        InputTask(Path input, String name) {
+            this.input = input;
+            this.name = name;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (Files.isDirectory(input)) {
+                    invokeAll(listDirectory());
+                } else if (isClassFile(input)) {
+                    new ClassTask(name, () -> readFile(input)).compute();
+                } else {
+                    try (ZipFile jar = new ZipFile(input.toFile())) {
+                        invokeAll(listJar(jar));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                addError(input.toString(), e);
+            }
+        }
+
+        private List<ClassTask> listDirectory() throws IOException {
+            try (Stream<Path> files = Files.walk(input)) {
+                return files.filter(BatchJob::isClassFile)
+                        .map(f -> new ClassTask(
+                                name + "/" + input.relativize(f).toString().replace(File.separatorChar, '/'),
+                                () -> readFile(f)))
+                        .collect(Collectors.toList());
+            }
+        }
+
+        private List<ClassTask> listJar(ZipFile jar) {
+            List<ClassTask> tasks = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
+                    tasks.add(new ClassTask(name + "/" + entry.getName(), () -> {
+                        try (InputStream in = jar.getInputStream(entry)) {
+                            return StreamHelper.readAll(in, entry.getSize());
+                        }
+                    }));
+                }
+            }
+            return tasks;
+        }
+
+    }
+
+    private static ByteBuffer readFile(Path file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.github.zxh.classpy.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Where BatchJob writes its results, a directory or a zip file.
+ * Results may be written by many threads at the same time.
+ */
+public abstract class BatchOutput implements Closeable {
+
+    /**
+     * Opens a zip file if path ends with .zip, otherwise a directory
+     * which is created if necessary.
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    public static BatchOutput open(Path path) throws IOException {
+        if (path.getFileName().toString().toLowerCase().endsWith(".zip")) {
+            return new ZipOutput(path);
+        } else {
+            return new DirectoryOutput(path);
+        }
+    }
+
+    /**
+     * Writes text as UTF-8.
+     * @param name relative path separated by '/'
+     * @param text
+     * @throws IOException
+     */
+    public abstract void write(String name, String text) throws IOException;
+
+
+    private static class DirectoryOutput extends BatchOutput {
+
+        private final Path dir;
+
+        DirectoryOutput(Path dir) throws IOException {
+            this.dir = Files.createDirectories(dir).normalize();
+        }
+
+        @Override
+        public void write(String name, String text) throws IOException {
+            Path file = dir.resolve(name).normalize();
+            if (!file.startsWith(dir)) { // entry names like ../x from a jar
+                throw new IOException("Invalid output name: " + name);
+            }
+            Files.createDirectories(file.getParent());
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    // entries are written one at a time, the text is encoded before locking
+    private static class ZipOutput extends BatchOutput {
+
+        private final ZipOutputStream zip;
+
+        ZipOutput(Path file) throws IOException {
+            this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        }
+
+        @Override
+        public void write(String name, String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            synchronized (zip) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(bytes);
+                zip.closeEntry();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (zip) {
+                zip.close();
+            }
+        }
+
+    }
+
+}
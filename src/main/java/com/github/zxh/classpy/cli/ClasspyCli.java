@@ -0,0 +1,84 @@
+package com.github.zxh.classpy.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless main class, runs a BatchJob without JavaFX.
+ *
+ * <pre>
+ * java -cp classpy.jar com.github.zxh.classpy.cli.ClasspyCli \
+ *     -mode java -out src.zip lib/a.jar:lib/b.jar classes/
+ * </pre>
+ *
+ * The throughput summary and errors go to stderr. The exit status is
+ * 1 if any class failed and 2 for bad arguments.
+ */
+public class ClasspyCli {
+
+    private static final String USAGE =
+            "usage: ClasspyCli [-mode tree|java|summary] [-out DIR|FILE.zip] [-threads N] INPUT...\n"
+            + "  INPUT is a jar, a directory of classes, a class file,\n"
+            + "  or a classpath of them separated by '" + File.pathSeparator + "'.\n"
+            + "  Without -out, results are discarded, except the summary which goes to stdout.";
+
+    public static void main(String[] args) throws IOException {
+        BatchJob.Mode mode = BatchJob.Mode.SUMMARY;
+        Path out = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> inputs = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-mode":
+                        mode = BatchJob.Mode.valueOf(args[++i].toUpperCase());
+                        break;
+                    case "-out":
+                        out = Paths.get(args[++i]);
+                        break;
+                    case "-threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        if (args[i].startsWith("-")) {
+                            throw new IllegalArgumentException(args[i]);
+                        }
+                        for (String path : args[i].split(File.pathSeparator)) {
+                            if (!path.isEmpty()) {
+                                inputs.add(Paths.get(path));
+                            }
+                        }
+                }
+            }
+            if (inputs.isEmpty() || threads < 1) {
+                throw new IllegalArgumentException();
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        BatchJob job;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (BatchOutput output = out != null ? BatchOutput.open(out) : null) {
+            job = new BatchJob(mode, output);
+            job.run(inputs, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        if (out == null) {
+            job.getSummaryLines().stream().sorted().forEach(System.out::println);
+        }
+        job.getErrors().stream().sorted().forEach(System.err::println);
+        System.err.println(job.getThroughputSummary());
+        System.exit(job.getErrors().isEmpty() ? 0 : 1);
+    }
+
+}
@@ -1,84 +1,244 @@
 package com.github.zxh.classpy.common;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
+/**
+ * Reads bytes from a ByteBuffer.
+ *
+ * By default every read is checked by the buffer. For input which is known
+ * to be well formed, setUnchecked(true) switches a big-endian reader over
+ * a heap buffer to reading the backing array directly. Unchecked reads
+ * don't stop at the limit of the data, reading past it returns garbage
+ * or throws ArrayIndexOutOfBoundsException.
+ */
 public class BytesReader {
-    
+
     private final ByteBuffer buf;
+    private final byte[] array; // backing array of buf, or null
+    private final int arrayOffset; // index of buf's first byte in array
+    private boolean unchecked;
+    private int position; // used instead of buf's position while unchecked
 
     public BytesReader(byte[] data, ByteOrder order) {
-        this.buf = ByteBuffer.wrap(data)
+        this(ByteBuffer.wrap(data), order);
+    }
+
+    /**
+     * Reads bytes between position and limit of data, which may be
+     * a heap, direct or memory-mapped buffer. data itself is not modified.
+     * @param data
+     * @param order
+     */
+    public BytesReader(ByteBuffer data, ByteOrder order) {
+        this.buf = data.slice()
                 .asReadOnlyBuffer()
                 .order(order);
+        if (data.hasArray()) {
+            this.array = data.array();
+            this.arrayOffset = data.arrayOffset() + data.position();
+        } else {
+            this.array = null;
+            this.arrayOffset = 0;
+        }
+    }
+
+    /**
+     * Creates a reader sharing the same bytes but having its own position.
+     * @param other
+     */
+    protected BytesReader(BytesReader other) {
+        this.buf = other.buf.duplicate()
+                .order(other.buf.order());
+        this.array = other.array;
+        this.arrayOffset = other.arrayOffset;
+        this.unchecked = other.unchecked;
+        this.position = other.position;
+    }
+
+    /**
+     * Returns the read-only buffer this reader reads from, for subclasses
+     * which decode bytes in place.
+     * @return
+     */
+    protected final ByteBuffer getBuffer() {
+        return buf;
+    }
+
+    /**
+     * Turns unchecked reading on or off. Readers over direct or read-only
+     * buffers, and little-endian readers, always stay checked.
+     * @param unchecked
+     */
+    public void setUnchecked(boolean unchecked) {
+        if (unchecked && (array == null || buf.order() != ByteOrder.BIG_ENDIAN)) {
+            return;
+        }
+        int pos = getPosition();
+        this.unchecked = unchecked;
+        setPosition(pos);
+    }
+
+    public boolean isUnchecked() {
+        return unchecked;
     }
 
     public int getPosition() {
-        return buf.position();
+        return unchecked ? position : buf.position();
+    }
+
+    public void setPosition(int position) {
+        if (unchecked) {
+            this.position = position;
+        } else {
+            buf.position(position);
+        }
+    }
+
+    /**
+     * @return number of bytes between position and the end of data
+     */
+    public int remaining() {
+        return unchecked ? buf.limit() - position : buf.remaining();
     }
 
     public byte getByte(int index) {
-        return buf.get(index);
+        return unchecked ? array[arrayOffset + index] : buf.get(index);
     }
 
     public short getShort(int index) {
+        if (unchecked) {
+            int i = arrayOffset + index;
+            return (short) ((array[i] << 8) | (array[i + 1] & 0xff));
+        }
         return buf.getShort(index);
     }
 
+    public int getInt(int index) {
+        if (unchecked) {
+            int i = arrayOffset + index;
+            return (array[i] << 24)
+                    | ((array[i + 1] & 0xff) << 16)
+                    | ((array[i + 2] & 0xff) << 8)
+                    | (array[i + 3] & 0xff);
+        }
+        return buf.getInt(index);
+    }
+
     // 8-bit signed int
     public byte readByte() {
-        return buf.get();
+        return unchecked ? array[arrayOffset + position++] : buf.get();
     }
-    
+
     // 8-bit unsigned int
     public int readUnsignedByte() {
-        return Byte.toUnsignedInt(buf.get());
+        return Byte.toUnsignedInt(readByte());
     }
-    
+
     // 16-bit signed int
     public short readShort() {
+        if (unchecked) {
+            short s = getShort(position);
+            position += 2;
+            return s;
+        }
         return buf.getShort();
     }
-    
+
     // 16-bit unsigned int
     public int readUnsignedShort() {
-        return Short.toUnsignedInt(buf.getShort());
+        return Short.toUnsignedInt(readShort());
     }
-    
+
     // 32-bit signed int
     public int readInt() {
+        if (unchecked) {
+            int n = getInt(position);
+            position += 4;
+            return n;
+        }
         return buf.getInt();
     }
 
     // 32-bit unsigned int
     public long readUnsignedInt() {
-        return Integer.toUnsignedLong(buf.getInt());
+        return Integer.toUnsignedLong(readInt());
     }
 
     // 64-bit signed int
     public long readLong() {
+        if (unchecked) {
+            long high = readInt();
+            return (high << 32) | Integer.toUnsignedLong(readInt());
+        }
         return buf.getLong();
     }
 
     public float readFloat() {
-        return buf.getFloat();
+        return unchecked ? Float.intBitsToFloat(readInt()) : buf.getFloat();
     }
 
     public double readDouble() {
-        return buf.getDouble();
+        return unchecked ? Double.longBitsToDouble(readLong()) : buf.getDouble();
     }
 
     // byte[]
     public byte[] readBytes(int n) {
+        if (unchecked) {
+            int from = arrayOffset + position;
+            position += n;
+            return Arrays.copyOfRange(array, from, from + n);
+        }
         byte[] bytes = new byte[n];
         buf.get(bytes);
         return bytes;
     }
 
-    public void skipBytes(int n) {
+    // u2[n]
+    public int[] readUnsignedShorts(int n) {
+        int[] values = new int[n];
+        if (unchecked) {
+            for (int i = 0; i < n; i++) {
+                values[i] = Short.toUnsignedInt(getShort(position));
+                position += 2;
+            }
+            return values;
+        }
+
+        short[] shorts = new short[n];
+        buf.asShortBuffer().get(shorts);
+        buf.position(buf.position() + 2 * n);
         for (int i = 0; i < n; i++) {
-            buf.get();
+            values[i] = Short.toUnsignedInt(shorts[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Returns a read-only view of length bytes at index, without copying
+     * and without changing position.
+     * @param index
+     * @param length
+     * @return
+     */
+    public ByteBuffer slice(int index, int length) {
+        ByteBuffer dup = buf.duplicate();
+        dup.limit(index + length);
+        dup.position(index);
+        return dup.slice();
+    }
+
+    public void skipBytes(int n) {
+        if (unchecked) {
+            position += n;
+            return;
+        }
+        if (n < 0 || n > buf.remaining()) {
+            throw new BufferUnderflowException();
         }
+        buf.position(buf.position() + n);
     }
 
 }
@@ -0,0 +1,206 @@
+package com.github.zxh.classpy.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compact copy of a parsed FileComponent tree.
+ *
+ * Every component becomes a row in a few int columns (kind, offset, length,
+ * parent, value, name, desc and children). Names, descs and kinds are shared
+ * through string tables. Rows are stored in breadth-first order, so the
+ * children of a row are contiguous. The tree is browsed through flyweight
+ * Nodes which are created on demand and can be dropped at any time.
+ */
+public class ComponentArena {
+
+    private static final int KIND        = 0;
+    private static final int OFFSET      = 1;
+    private static final int LENGTH      = 2;
+    private static final int PARENT      = 3;
+    private static final int VALUE       = 4;
+    private static final int NAME        = 5;
+    private static final int DESC        = 6;
+    private static final int FIRST_CHILD = 7;
+    private static final int CHILD_COUNT = 8;
+    private static final int COLUMN_COUNT = 9;
+
+    private final IntBuffer[] columns = new IntBuffer[COLUMN_COUNT];
+    private final String[] kinds;
+    private final String[] strings;
+    private final int size;
+
+    private ComponentArena(List<FileComponent> nodes, int[] parents,
+                           ToIntFunction<FileComponent> valueOf,
+                           boolean offHeap) {
+        size = nodes.size();
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            columns[i] = offHeap
+                    ? ByteBuffer.allocateDirect(size * 4).order(ByteOrder.nativeOrder()).asIntBuffer()
+                    : IntBuffer.allocate(size);
+        }
+
+        StringTable kindTable = new StringTable();
+        StringTable stringTable = new StringTable();
+        for (int i = 0; i < size; i++) {
+            FileComponent c = nodes.get(i);
+            columns[KIND].put(i, kindTable.indexOf(c.getKind()));
+            columns[OFFSET].put(i, c.getOffset());
+            columns[LENGTH].put(i, c.getLength());
+            columns[PARENT].put(i, parents[i]);
+            columns[VALUE].put(i, valueOf.applyAsInt(c));
+            columns[NAME].put(i, stringTable.indexOf(c.getName()));
+            columns[DESC].put(i, stringTable.indexOf(c.getDesc()));
+            if (i > 0) {
+                int parent = parents[i];
+                if (columns[CHILD_COUNT].get(parent) == 0) {
+                    columns[FIRST_CHILD].put(parent, i);
+                }
+                columns[CHILD_COUNT].put(parent, columns[CHILD_COUNT].get(parent) + 1);
+            }
+        }
+        kinds = kindTable.toArray();
+        strings = stringTable.toArray();
+    }
+
+    /**
+     * Copy the tree into a new arena and return its root node.
+     * The original tree can be garbage collected afterwards.
+     *
+     * @param root root of the parsed tree
+     * @param valueOf extracts the int value (if any) of a component
+     * @param offHeap store the int columns in direct buffers
+     * @return
+     */
+    public static Node compact(FileComponent root,
+                               ToIntFunction<FileComponent> valueOf,
+                               boolean offHeap) {
+        List<FileComponent> nodes = new ArrayList<>();
+        int[] parents = new int[64];
+
+        nodes.add(root);
+        parents[0] = -1;
+        for (int i = 0; i < nodes.size(); i++) {
+            for (FileComponent c : nodes.get(i).getComponents()) {
+                if (nodes.size() == parents.length) {
+                    parents = Arrays.copyOf(parents, parents.length * 2);
+                }
+                parents[nodes.size()] = i;
+                nodes.add(c);
+            }
+        }
+
+        return new ComponentArena(nodes, parents, valueOf, offHeap).node(0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Node node(int index) {
+        return new Node(this, index);
+    }
+
+    private int get(int column, int index) {
+        return columns[column].get(index);
+    }
+
+
+    /**
+     * Flyweight view of one row in the arena.
+     */
+    public static class Node extends FileComponent {
+
+        private final ComponentArena arena;
+        private final int index;
+
+        private Node(ComponentArena arena, int index) {
+            this.arena = arena;
+            this.index = index;
+            setName(arena.strings[arena.get(NAME, index)]);
+            setDesc(arena.strings[arena.get(DESC, index)]);
+            setOffset(arena.get(OFFSET, index));
+            setLength(arena.get(LENGTH, index));
+        }
+
+        public ComponentArena getArena() {
+            return arena;
+        }
+
+        /**
+         * @return simple class name of the original component
+         */
+        @Override
+        public String getKind() {
+            return arena.kinds[arena.get(KIND, index)];
+        }
+
+        public int getValue() {
+            return arena.get(VALUE, index);
+        }
+
+        public Node getParent() {
+            int parent = arena.get(PARENT, index);
+            return parent < 0 ? null : arena.node(parent);
+        }
+
+        @Override
+        public List<FileComponent> getComponents() {
+            final int firstChild = arena.get(FIRST_CHILD, index);
+            final int childCount = arena.get(CHILD_COUNT, index);
+            return new AbstractList<FileComponent>() {
+
+                @Override
+                public FileComponent get(int i) {
+                    if (i < 0 || i >= childCount) {
+                        throw new IndexOutOfBoundsException(String.valueOf(i));
+                    }
+                    return arena.node(firstChild + i);
+                }
+
+                @Override
+                public int size() {
+                    return childCount;
+                }
+
+            };
+        }
+
+    }
+
+
+    // index 0 is reserved for null
+    private static class StringTable {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        StringTable() {
+            strings.add(null);
+        }
+
+        int indexOf(String str) {
+            if (str == null) {
+                return 0;
+            }
+            return indexes.computeIfAbsent(str, s -> {
+                strings.add(s);
+                return strings.size() - 1;
+            });
+        }
+
+        String[] toArray() {
+            return strings.toArray(new String[strings.size()]);
+        }
+
+    }
+
+}
@@ -6,6 +6,10 @@ import java.util.List;
 
 /**
  * Base class for all file components.
+ *
+ * A parsed tree may be read by many threads. Components which label
+ * themselves or build their sub-components lazily do it once, under a lock,
+ * and publish the result safely. Setters are meant for parsing only.
  */
 public abstract class FileComponent {
     
@@ -14,23 +18,75 @@ public abstract class FileComponent {
     private int offset; // the position of this FileComponent in the file
     private int length; // how many bytes this FileComponent has
     private List<FileComponent> components; // sub-components
+    private volatile boolean labelled; // loadLabel() has returned
+    private boolean labelling; // loadLabel() is running, guarded by getLabelLock()
     
     // Getters & Setters
-    public final String getName() {return name;}
+    public final String getName() {label(); return name;}
     public final void setName(String name) {this.name = name;}
-    public final String getDesc() {return desc;}
+    public final String getDesc() {label(); return desc;}
     public final void setDesc(String desc) {this.desc = desc;}
     public final int getOffset() {return offset;}
     public final void setOffset(int offset) {this.offset = offset;}
     public final int getLength() {return length;}
     public final void setLength(int length) {this.length = length;}
 
+    /**
+     * Computes name and desc of this component. Called once, on the first
+     * getName(), getDesc() or toString() call, so components which are never
+     * displayed are never labelled.
+     */
+    protected void loadLabel() {
+
+    }
+
+    /**
+     * Calls loadLabel() if it has not been called yet. Recursive calls
+     * made by loadLabel() itself return at once.
+     */
+    protected final void label() {
+        if (labelled) {
+            return;
+        }
+        synchronized (getLabelLock()) {
+            if (labelled || labelling) {
+                return;
+            }
+            labelling = true;
+            try {
+                loadLabel();
+            } finally {
+                labelling = false;
+                labelled = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the lock held while loadLabel() runs. Components whose labels
+     * depend on each other should share one lock, so that threads labelling
+     * them in different orders can't deadlock.
+     * @return
+     */
+    protected Object getLabelLock() {
+        return this;
+    }
+
     public List<FileComponent> getComponents() {
         return components == null
                 ? Collections.emptyList()
                 : Collections.unmodifiableList(components);
     }
 
+    /**
+     * Same as !getComponents().isEmpty(), overridden by components which
+     * can answer without building their sub-components.
+     * @return
+     */
+    public boolean hasComponents() {
+        return !getComponents().isEmpty();
+    }
+
     /**
      * Find sub-component by name.
      * @param name name of sub-component
@@ -38,13 +94,22 @@ public abstract class FileComponent {
      */
     protected final FileComponent get(String name) {
         for (FileComponent c : components) {
-            if (name.equals(c.getName())) {
+            if (name.equals(c.name)) { // don't trigger labelling
                 return c;
             }
         }
         return null;
     }
 
+    /**
+     * Find sub-component by position.
+     * @param index position of sub-component
+     * @return value of sub-component
+     */
+    protected final FileComponent get(int index) {
+        return components.get(index);
+    }
+
     protected final void add(String name, FileComponent subComponent) {
         if (name != null) {
             subComponent.setName(name);
@@ -62,6 +127,7 @@ public abstract class FileComponent {
      */
     @Override
     public final String toString() {
+        label();
         if (name != null && desc != null) {
             return name + ": " + desc;
         }
@@ -72,6 +138,13 @@ public abstract class FileComponent {
             return desc;
         }
 
+        return getKind();
+    }
+
+    /**
+     * @return the kind of this FileComponent, used when it has no name and desc
+     */
+    public String getKind() {
         return getClass().getSimpleName();
     }
 
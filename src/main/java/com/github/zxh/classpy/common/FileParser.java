@@ -1,7 +1,46 @@
 package com.github.zxh.classpy.common;
 
+import com.github.zxh.classpy.helper.StreamHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
 public interface FileParser {
 
-    FileComponent parse(byte[] data);
+    /**
+     * Parse bytes between position and limit of data.
+     * The buffer may be a heap, direct or memory-mapped buffer.
+     * @param data
+     * @return
+     */
+    FileComponent parse(ByteBuffer data);
+
+    default FileComponent parse(byte[] data) {
+        return parse(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Read the whole stream and parse it. The stream is not closed.
+     * @param in
+     * @param sizeHint expected size, like ZipEntry.getSize() or Files.size(), or -1 if unknown
+     * @return
+     * @throws IOException
+     */
+    default FileComponent parse(InputStream in, long sizeHint) throws IOException {
+        return parse(StreamHelper.readAll(in, sizeHint));
+    }
+
+    /**
+     * Read the whole channel and parse it. The channel is not closed.
+     * @param in
+     * @param sizeHint expected size, or -1 if unknown
+     * @return
+     * @throws IOException
+     */
+    default FileComponent parse(ReadableByteChannel in, long sizeHint) throws IOException {
+        return parse(StreamHelper.readAll(in, sizeHint));
+    }
 
 }
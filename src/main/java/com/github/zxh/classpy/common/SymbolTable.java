@@ -0,0 +1,35 @@
+package com.github.zxh.classpy.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Strings shared by all files parsed in one scope (a jar, a session...).
+ * Names and descriptors like java/lang/Object, ()V and Code appear in
+ * nearly every class, interning them keeps one copy per scope instead of
+ * one per class. The table may be used by many parsers concurrently and
+ * is released together with its scope.
+ */
+public class SymbolTable {
+
+    private final ConcurrentMap<String, String> symbols = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the string in this table which equals str,
+     * adding str if there is none.
+     * @param str
+     * @return
+     */
+    public String intern(String str) {
+        if (str == null) {
+            return null;
+        }
+        String symbol = symbols.putIfAbsent(str, str);
+        return symbol != null ? symbol : str;
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+}
@@ -20,6 +20,7 @@ import javafx.stage.Stage;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
 
 /**
  * Main class.
@@ -102,7 +103,11 @@ public class ClasspyApp extends Application {
                 success = true;
                 for (File file : db.getFiles()) {
                     //System.out.println(file.getAbsolutePath());
-                    openFile(file);
+                    if (file.isDirectory()) {
+                        openFilesIn(file);
+                    } else {
+                        openFile(file);
+                    }
                 }
             }
             event.setDropCompleted(success);
@@ -127,6 +132,17 @@ public class ClasspyApp extends Application {
         }
     }
 
+    // opens the files directly in dir, sub-directories are not opened
+    private void openFilesIn(File dir) {
+        File[] files = dir.listFiles(File::isFile);
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                openFile(file);
+            }
+        }
+    }
+
     private void openFile(File file) {
         try {
             openFile(file.toURI().toURL());
@@ -17,7 +17,7 @@ public class JarTreeItem extends TreeItem<JarTreeNode> {
 
     @Override
     public boolean isLeaf() {
-        return !getValue().hasSubNodes();
+        return !getValue().isFolder();
     }
     
     @Override
@@ -35,7 +35,7 @@ public class JarTreeItem extends TreeItem<JarTreeNode> {
     }
 
     private ObservableList<TreeItem<JarTreeNode>> buildChildren() {
-        List<JarTreeItem> items = getValue().subNodes.stream()
+        List<JarTreeItem> items = getValue().getSubNodes().stream()
                 .map(JarTreeItem::new)
                 .collect(Collectors.toList());
 
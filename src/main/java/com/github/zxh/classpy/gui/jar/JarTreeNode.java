@@ -1,54 +1,150 @@
 package com.github.zxh.classpy.gui.jar;
 
-import java.nio.file.Path;
+import com.github.zxh.classpy.zip.ZipIndex;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Folder, nested jar or class file of a jar. Sub-nodes are listed from
+ * the ZipIndex on first use, folders without class files or nested jars
+ * are left out.
+ *
+ * Entries of a nested jar have paths like /BOOT-INF/lib/foo.jar!/a/B.class,
+ * the nested jar is only read when its node is expanded. If it can't be
+ * read, its only sub-node is a leaf showing the error, and it is read
+ * again the next time its sub-nodes are listed.
+ */
 public class JarTreeNode {
 
-    final String path;
+    final String path; // like /a/b/C.class
     final String name;
-    List<JarTreeNode> subNodes;
+    private final ZipIndex index; // index containing this folder or nested jar, null for class files
+    private final String pathPrefix; // like /lib/foo.jar! inside a nested jar, "" otherwise
+    private final String entryName; // like a/b/ for folders, "" for the root
+    private final boolean nestedJar;
+    private List<JarTreeNode> subNodes;
+
+    /**
+     * Creates the root folder of a jar.
+     * @param index
+     */
+    JarTreeNode(ZipIndex index) {
+        this(index, "", "", false);
+    }
 
-    JarTreeNode(Path path) {
-        this.path = path.toString();
-        if (path.getFileName() != null) {
-            this.name = path.getFileName().toString();
+    private JarTreeNode(ZipIndex index, String pathPrefix, String entryName, boolean nestedJar) {
+        this.index = index;
+        this.pathPrefix = pathPrefix;
+        this.entryName = entryName;
+        this.nestedJar = nestedJar;
+        if (entryName.isEmpty()) {
+            this.path = pathPrefix + "/";
+            this.name = "/";
         } else {
-            this.name = path.toString();
+            this.path = pathPrefix + "/" + (entryName.endsWith("/")
+                    ? entryName.substring(0, entryName.length() - 1)
+                    : entryName);
+            this.name = path.substring(path.lastIndexOf('/') + 1);
         }
     }
 
+    // leaf named like <java.io.IOException: ...>
+    private JarTreeNode(String path, Exception error) {
+        this.index = null;
+        this.pathPrefix = "";
+        this.entryName = "";
+        this.nestedJar = false;
+        this.path = path;
+        this.name = "<" + error + ">";
+    }
+
+    private static JarTreeNode classFile(String pathPrefix, String entryName) {
+        return new JarTreeNode(null, pathPrefix, entryName, false);
+    }
+
     @Override
     public String toString() {
         return name;
     }
 
-    boolean hasSubNodes() {
-        return subNodes != null && !subNodes.isEmpty();
+    boolean isFolder() {
+        return index != null;
     }
 
-    void addSubNode(JarTreeNode node) {
+    List<JarTreeNode> getSubNodes() {
         if (subNodes == null) {
-            subNodes = new ArrayList<>();
+            if (nestedJar) {
+                try {
+                    subNodes = listSubNodes(index.getNested(index.indexOf(entryName)), path + "!", "");
+                } catch (RuntimeException e) {
+                    e.printStackTrace(System.err);
+                    return Collections.singletonList(new JarTreeNode(path, e));
+                }
+            } else if (index != null) {
+                subNodes = listSubNodes(index, pathPrefix, entryName);
+            } else {
+                subNodes = Collections.emptyList();
+            }
         }
-        subNodes.add(node);
+        return subNodes;
     }
 
-    void sortSubNodes() {
-        if (subNodes != null) {
-            subNodes.sort(JarTreeNode::comparePaths);
+    // folders and nested jars first, each sorted by name
+    private static List<JarTreeNode> listSubNodes(ZipIndex index, String pathPrefix, String dir) {
+        List<JarTreeNode> folders = new ArrayList<>();
+        List<JarTreeNode> files = new ArrayList<>();
+
+        int end = index.endIndexIn(dir);
+        for (int i = index.firstIndexIn(dir); i < end; ) {
+            String entryName = index.getName(i);
+            int slash = entryName.indexOf('/', dir.length());
+            if (slash < 0) {
+                if (isClassFile(entryName)) {
+                    files.add(classFile(pathPrefix, entryName));
+                } else if (isJarFile(entryName)) {
+                    folders.add(new JarTreeNode(index, pathPrefix, entryName, true));
+                }
+                i++;
+            } else {
+                // skip the whole sub-folder
+                String subDir = entryName.substring(0, slash + 1);
+                int subEnd = index.endIndexIn(subDir);
+                if (containsClassOrJarFile(index, i, subEnd)) {
+                    folders.add(new JarTreeNode(index, pathPrefix, subDir, false));
+                }
+                i = subEnd;
+            }
         }
+
+        folders.sort(JarTreeNode::compareNames);
+        files.sort(JarTreeNode::compareNames);
+        folders.addAll(files);
+        return folders;
     }
 
-    static int comparePaths(JarTreeNode n1, JarTreeNode n2) {
-        if (n1.hasSubNodes() && !n2.hasSubNodes()) {
-            return -1;
-        } else if (!n1.hasSubNodes() && n2.hasSubNodes()) {
-            return 1;
-        } else {
-            return n1.name.compareTo(n2.name);
+    private static boolean containsClassOrJarFile(ZipIndex index, int from, int to) {
+        for (int i = from; i < to; i++) {
+            String entryName = index.getName(i);
+            if (isClassFile(entryName) || isJarFile(entryName)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private static boolean isClassFile(String entryName) {
+        return entryName.endsWith(".class");
+    }
+
+    // like BOOT-INF/lib/*.jar in Spring Boot jars and WEB-INF/lib/*.jar in wars
+    private static boolean isJarFile(String entryName) {
+        return entryName.endsWith(".jar") || entryName.endsWith(".war");
+    }
+
+    static int compareNames(JarTreeNode n1, JarTreeNode n2) {
+        return n1.name.compareTo(n2.name);
     }
 
 }
@@ -18,7 +18,7 @@ public class ParsedTreeItem extends TreeItem<FileComponent> {
 
     @Override
     public boolean isLeaf() {
-        return getValue().getComponents().isEmpty();
+        return !getValue().hasComponents();
     }
 
     // build children lazily
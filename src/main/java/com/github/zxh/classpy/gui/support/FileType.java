@@ -10,7 +10,7 @@ import javafx.stage.FileChooser.ExtensionFilter;
  */
 public enum FileType {
 
-    JAVA_JAR("/jar.png", "Java JAR", "*.jar"),
+    JAVA_JAR("/jar.png", "Java JAR", "*.jar", "*.war"),
     JAVA_CLASS("/java.png", "Java Class", "*.class"),
     LUA_BC("/lua.png", "Lua Binary Chunk", "*.luac"),
     UNKNOWN("/file.png", "Unknown", "*.*"),
@@ -19,9 +19,9 @@ public enum FileType {
     public final Image icon;
     public final ExtensionFilter filter;
 
-    private FileType(String icon, String description, String extension) {
+    private FileType(String icon, String description, String... extensions) {
         this.icon = ImageHelper.loadImage(icon);
-        this.filter = new ExtensionFilter(description, extension);
+        this.filter = new ExtensionFilter(description, extensions);
     }
 
     public static FileType typeOf(FileComponent root) {
@@ -2,14 +2,23 @@ package com.github.zxh.classpy.gui.support;
 
 import com.github.zxh.classpy.classfile.ClassFileParser;
 import com.github.zxh.classpy.common.FileComponent;
+import com.github.zxh.classpy.common.FileParser;
 import com.github.zxh.classpy.gui.jar.JarTreeLoader;
 import com.github.zxh.classpy.gui.jar.JarTreeNode;
+import com.github.zxh.classpy.gui.parsed.HexText;
+import com.github.zxh.classpy.helper.StreamHelper;
 import com.github.zxh.classpy.helper.UrlHelper;
 import com.github.zxh.classpy.lua.binarychunk.BinaryChunkParser;
+import com.github.zxh.classpy.zip.JarSessionPool;
 import javafx.concurrent.Task;
 
 import java.io.File;
+import java.io.PushbackInputStream;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.function.Consumer;
 
@@ -17,6 +26,8 @@ public class OpenFileTask extends Task<OpenFileResult> {
 
     private static final byte[] classMagicNumber = {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE};
     private static final byte[] binaryChunkSig = {0x1B, 'L', 'u', 'a'};
+    private static final int MAGIC_LENGTH = 4;
+    private static final int RAW_HEX_LENGTH = 64 * 1024;
 
 
     private final URL url;
@@ -35,22 +46,71 @@ public class OpenFileTask extends Task<OpenFileResult> {
             return new OpenFileResult(url, fileType, rootNode);
         }
 
-        byte[] data = UrlHelper.readData(url);
+        if (isLocalJarEntry(url)) {
+            return open(fileType, readJarEntry(url));
+        }
+
+        // only the magic number is read before the type is known
+        URLConnection conn = url.openConnection();
+        long sizeHint = conn.getContentLengthLong();
+        try (PushbackInputStream in = new PushbackInputStream(conn.getInputStream(), MAGIC_LENGTH)) {
+            byte[] magicNumber = StreamHelper.readPrefix(in, MAGIC_LENGTH);
+            in.unread(magicNumber);
+            if (fileType == FileType.UNKNOWN) {
+                fileType = getFileType(magicNumber);
+            }
+
+            if (fileType == FileType.UNKNOWN) {
+                byte[] prefix = StreamHelper.readPrefix(in, RAW_HEX_LENGTH);
+                return result(fileType, rawComponent(prefix, sizeHint), new HexText(prefix));
+            } else {
+                return result(fileType, parserOf(fileType).parse(in, sizeHint), null);
+            }
+        }
+    }
+
+    // the entry is already in memory, only its first bytes are probed
+    private OpenFileResult open(FileType fileType, ByteBuffer data) {
         if (fileType == FileType.UNKNOWN) {
-            fileType = getFileType(data);
+            byte[] magicNumber = new byte[Math.min(MAGIC_LENGTH, data.remaining())];
+            data.duplicate().get(magicNumber);
+            fileType = getFileType(magicNumber);
         }
 
-        //HexText hex = new HexText(data);
-        FileComponent fc = parse(data, fileType);
-        fc.setName(UrlHelper.getFileName(url));
+        if (fileType == FileType.UNKNOWN) {
+            byte[] prefix = new byte[Math.min(RAW_HEX_LENGTH, data.remaining())];
+            data.duplicate().get(prefix);
+            return result(fileType, rawComponent(prefix, data.remaining()), new HexText(prefix));
+        } else {
+            return result(fileType, parserOf(fileType).parse(data), null);
+        }
+    }
 
+    private OpenFileResult result(FileType fileType, FileComponent fc, HexText hex) {
+        fc.setName(UrlHelper.getFileName(url));
         System.out.println("finish loading");
-        return new OpenFileResult(url, fileType, fc, null);
+        return new OpenFileResult(url, fileType, fc, hex);
+    }
+
+    // like jar:file:/path/to/foo.jar!/a/b/C.class, or
+    // jar:file:/path/to/foo.jar!/lib/bar.jar!/a/b/C.class in a nested jar
+    private static boolean isLocalJarEntry(URL url) {
+        return url.getProtocol().equals("jar")
+                && url.getFile().startsWith("file:")
+                && url.getFile().contains("!/");
+    }
+
+    // reads the entry from the jar's session instead of a JarURLConnection
+    private static ByteBuffer readJarEntry(URL url) throws Exception {
+        String file = url.getFile();
+        int sep = file.indexOf("!/");
+        Path jar = Paths.get(new URL(file.substring(0, sep)).toURI());
+        return JarSessionPool.INSTANCE.get(jar).read(file.substring(sep + 2));
     }
 
     private static FileType getFileType(URL url) {
         String filename = url.toString().toLowerCase();
-        if (filename.endsWith(".jar")) {
+        if (filename.endsWith(".jar") || filename.endsWith(".war")) {
             return FileType.JAVA_JAR;
         }
         if (filename.endsWith(".class")) {
@@ -62,29 +122,37 @@ public class OpenFileTask extends Task<OpenFileResult> {
         return FileType.UNKNOWN;
     }
 
-    private static FileType getFileType(byte[] data) {
-        if (data.length >= 4) {
-            byte[] magicNumber = Arrays.copyOf(data, 4);
-            if (Arrays.equals(magicNumber, classMagicNumber)) {
-                return FileType.JAVA_CLASS;
-            }
-            if (Arrays.equals(magicNumber, binaryChunkSig)) {
-                return FileType.LUA_BC;
-            }
+    private static FileType getFileType(byte[] magicNumber) {
+        if (Arrays.equals(magicNumber, classMagicNumber)) {
+            return FileType.JAVA_CLASS;
+        }
+        if (Arrays.equals(magicNumber, binaryChunkSig)) {
+            return FileType.LUA_BC;
         }
         return FileType.UNKNOWN;
     }
 
-    private static FileComponent parse(byte[] data, FileType fileType) {
+    private static FileParser parserOf(FileType fileType) {
         switch (fileType) {
             case JAVA_CLASS:
-                return new ClassFileParser().parse(data);
+                return new ClassFileParser();
             case LUA_BC:
-                return new BinaryChunkParser().parse(data);
+                return new BinaryChunkParser();
             default:
-                return new FileComponent() {
-                }; // todo
+                throw new IllegalArgumentException("Unsupported file type: " + fileType);
+        }
+    }
+
+    // unknown files are shown as hex, only the first RAW_HEX_LENGTH bytes are read
+    private static FileComponent rawComponent(byte[] prefix, long size) {
+        FileComponent fc = new FileComponent() {};
+        fc.setLength(prefix.length);
+        if (prefix.length == RAW_HEX_LENGTH && size != RAW_HEX_LENGTH) {
+            fc.setDesc(size < 0
+                    ? "first " + prefix.length + " bytes"
+                    : "first " + prefix.length + " of " + size + " bytes");
         }
+        return fc;
     }
 
     public void setOnSucceeded(Consumer<OpenFileResult> callback) {
@@ -0,0 +1,26 @@
+package com.github.zxh.classpy.helper;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class FileHelper {
+
+    /**
+     * Map the whole file into memory (read-only), so it can be parsed
+     * without copying it onto the heap. The mapping stays valid after
+     * the channel is closed.
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static MappedByteBuffer mapFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.github.zxh.classpy.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+public class StreamHelper {
+
+    private static final int DEFAULT_SIZE = 8192;
+    private static final int MAX_INITIAL_SIZE = 64 * 1024 * 1024; // hints may be wrong
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Read all bytes of the stream into one heap buffer. The buffer is
+     * sized by sizeHint and only grows (by copying) if the hint is wrong,
+     * the bytes are not copied again at the end.
+     *
+     * @param in
+     * @param sizeHint expected size, like ZipEntry.getSize() or Files.size(), or -1 if unknown
+     * @return buffer whose position is 0 and limit is the number of bytes read
+     * @throws IOException
+     */
+    public static ByteBuffer readAll(InputStream in, long sizeHint) throws IOException {
+        byte[] data = new byte[initialSize(sizeHint)];
+        int len = 0;
+        while (true) {
+            if (len == data.length) {
+                data = grow(data);
+            }
+            int n = in.read(data, len, data.length - len);
+            if (n < 0) {
+                return ByteBuffer.wrap(data, 0, len);
+            }
+            len += n;
+        }
+    }
+
+    /**
+     * Same as readAll(InputStream, long), but reads from a blocking channel.
+     *
+     * @param in
+     * @param sizeHint expected size, or -1 if unknown
+     * @return buffer whose position is 0 and limit is the number of bytes read
+     * @throws IOException
+     */
+    public static ByteBuffer readAll(ReadableByteChannel in, long sizeHint) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(initialSize(sizeHint));
+        while (true) {
+            if (!buf.hasRemaining()) {
+                ByteBuffer bigger = ByteBuffer.wrap(grow(buf.array()));
+                bigger.position(buf.position());
+                buf = bigger;
+            }
+            if (in.read(buf) < 0) {
+                buf.flip();
+                return buf;
+            }
+        }
+    }
+
+    /**
+     * Read at most maxLength bytes from the stream, fewer only if the
+     * stream ends first. The rest of the stream is left unread.
+     *
+     * @param in
+     * @param maxLength
+     * @return the bytes read
+     * @throws IOException
+     */
+    public static byte[] readPrefix(InputStream in, int maxLength) throws IOException {
+        byte[] data = new byte[maxLength];
+        int len = 0;
+        while (len < maxLength) {
+            int n = in.read(data, len, maxLength - len);
+            if (n < 0) {
+                return Arrays.copyOf(data, len);
+            }
+            len += n;
+        }
+        return data;
+    }
+
+    // one more byte than the hint, so that reaching the end doesn't grow the buffer
+    private static int initialSize(long sizeHint) {
+        if (sizeHint < 0) {
+            return DEFAULT_SIZE;
+        }
+        return (int) Math.min(sizeHint, MAX_INITIAL_SIZE - 1) + 1;
+    }
+
+    private static byte[] grow(byte[] data) throws IOException {
+        if (data.length >= MAX_SIZE) {
+            throw new IOException("Data too large!");
+        }
+        int newLength = (int) Math.min((long) Math.max(data.length, DEFAULT_SIZE) * 2, MAX_SIZE);
+        return Arrays.copyOf(data, newLength);
+    }
+
+}
@@ -30,7 +30,9 @@ public class StringHelper {
      * @return 
      */
     public static String cutAndAppendEllipsis(String str, int maxLength) {
-        str = str.replaceAll("\\r|\\n", "");
+        if (str.indexOf('\r') >= 0 || str.indexOf('\n') >= 0) {
+            str = str.replaceAll("\\r|\\n", "");
+        }
         
         if (str.length() <= maxLength) {
             return str;
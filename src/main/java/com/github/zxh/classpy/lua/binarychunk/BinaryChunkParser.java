@@ -3,10 +3,16 @@ package com.github.zxh.classpy.lua.binarychunk;
 import com.github.zxh.classpy.common.FileComponent;
 import com.github.zxh.classpy.common.FileParser;
 
+import java.nio.ByteBuffer;
+
+/**
+ * Parses Lua binary chunks. The parser has no state, each parse uses
+ * a reader of its own, so it can be shared by many threads.
+ */
 public class BinaryChunkParser implements FileParser {
 
     @Override
-    public FileComponent parse(byte[] data) {
+    public FileComponent parse(ByteBuffer data) {
         BinaryChunkReader reader = new BinaryChunkReader(data);
         BinaryChunkFile bc = new BinaryChunkFile();
         bc.read(reader);
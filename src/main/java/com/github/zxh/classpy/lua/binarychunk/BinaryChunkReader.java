@@ -2,6 +2,7 @@ package com.github.zxh.classpy.lua.binarychunk;
 
 import com.github.zxh.classpy.common.BytesReader;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 public class BinaryChunkReader extends BytesReader {
@@ -15,6 +16,10 @@ public class BinaryChunkReader extends BytesReader {
         super(data, ByteOrder.LITTLE_ENDIAN);
     }
 
+    public BinaryChunkReader(ByteBuffer data) {
+        super(data, ByteOrder.LITTLE_ENDIAN);
+    }
+
     // setters
     public void setSizetSize(int sizetSize) {this.sizetSize = sizetSize;}
     public void setCIntSize(int cIntSize) {this.cIntSize = cIntSize;}
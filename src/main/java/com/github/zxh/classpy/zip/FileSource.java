@@ -0,0 +1,111 @@
+package com.github.zxh.classpy.zip;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A zip file read with positional reads of a FileChannel, which is
+ * kept open until close(). After close(), each read opens the file
+ * for itself. Reads fail once the file has changed since the source
+ * was created, instead of returning bytes which don't match the index.
+ */
+class FileSource extends ZipSource implements Closeable {
+
+    private final Path file;
+    private final long size;
+    private final long lastModified;
+    private FileChannel channel; // null after close()
+
+    FileSource(Path file) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        this.file = file;
+        this.size = attrs.size();
+        this.lastModified = attrs.lastModifiedTime().toMillis();
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    @Override
+    long size() {
+        return size;
+    }
+
+    @Override
+    ByteBuffer read(long position, int length) {
+        checkRange(position, length);
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        try {
+            FileChannel ch = getChannel();
+            if (ch != null) {
+                try {
+                    readFully(ch, buf, position);
+                } catch (ClosedChannelException e) {
+                    // closed by close() on another thread
+                    buf.clear();
+                    readOnce(buf, position);
+                }
+            } else {
+                readOnce(buf, position);
+            }
+            if (isStale()) {
+                throw new IOException(file + " has changed since it was opened");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private synchronized FileChannel getChannel() {
+        return channel;
+    }
+
+    private void readOnce(ByteBuffer buf, long position) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            readFully(ch, buf, position);
+        }
+    }
+
+    private void readFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position()) < 0) {
+                throw new EOFException(file + " is shorter than when it was opened");
+            }
+        }
+    }
+
+    /**
+     * Returns true if the file was changed or removed after the source was created.
+     * @return
+     */
+    boolean isStale() {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            return attrs.size() != size || attrs.lastModifiedTime().toMillis() != lastModified;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // nothing was written, there is nothing to lose
+            }
+            channel = null;
+        }
+    }
+
+}
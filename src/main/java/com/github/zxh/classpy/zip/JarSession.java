@@ -0,0 +1,98 @@
+package com.github.zxh.classpy.zip;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * An open jar file: its central directory is read once, entries are
+ * then read by name with positional reads of an open FileChannel.
+ * Nested jars are indexed on first use.
+ *
+ * The jar is not mapped, so it can be replaced while it is open, and
+ * close() really closes it. A closed session can still be used, each
+ * read then opens the jar again. Once the jar has changed on disk,
+ * reads of the session and of its ZipIndexes fail with an IOException
+ * (UncheckedIOException from ZipIndex), the jar has to be opened again.
+ */
+public class JarSession implements Closeable {
+
+    private final Path jar;
+    private final FileSource source;
+    private final ZipIndex index;
+
+    private JarSession(Path jar) throws IOException {
+        this.jar = jar;
+        this.source = new FileSource(jar);
+        try {
+            this.index = ZipIndex.read(source);
+        } catch (RuntimeException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    public static JarSession open(Path jar) throws IOException {
+        try {
+            return new JarSession(jar);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public Path getJar() {
+        return jar;
+    }
+
+    public ZipIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Reads the uncompressed bytes of an entry, which may be in a nested jar.
+     * @param entryName like a/b/C.class or lib/foo.jar!/a/b/C.class
+     * @return
+     * @throws FileNotFoundException if there is no such entry
+     * @throws IOException if the jar can't be read or has changed
+     */
+    public ByteBuffer read(String entryName) throws IOException {
+        String[] names = entryName.split("!/");
+        try {
+            ZipIndex zip = index;
+            for (int n = 0; n < names.length - 1; n++) {
+                zip = zip.getNested(indexOf(zip, names[n], entryName));
+            }
+            return zip.getData(indexOf(zip, names[names.length - 1], entryName));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int indexOf(ZipIndex zip, String name, String entryName) throws FileNotFoundException {
+        int i = zip.indexOf(name);
+        if (i < 0) {
+            throw new FileNotFoundException(jar + "!/" + entryName);
+        }
+        return i;
+    }
+
+    /**
+     * Returns true if the jar was changed or removed after it was opened.
+     * @return
+     */
+    public boolean isStale() {
+        return source.isStale();
+    }
+
+    /**
+     * Closes the jar file, the session can still be used.
+     */
+    @Override
+    public void close() {
+        source.close();
+    }
+
+}
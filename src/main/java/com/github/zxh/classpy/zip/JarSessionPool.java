@@ -0,0 +1,65 @@
+package com.github.zxh.classpy.zip;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Open jar sessions by path, the least recently used session is closed
+ * and dropped when there are more than maxSessions. A dropped or stale
+ * session is opened again on the next get(). This class is thread-safe,
+ * jars are opened outside its lock.
+ */
+public class JarSessionPool {
+
+    public static final JarSessionPool INSTANCE = new JarSessionPool(16);
+
+
+    private final Map<Path, JarSession> sessions;
+
+    public JarSessionPool(int maxSessions) {
+        this.sessions = new LinkedHashMap<Path, JarSession>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, JarSession> eldest) {
+                if (size() > maxSessions) {
+                    eldest.getValue().close();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public JarSession get(Path jar) throws IOException {
+        Path key = jar.toAbsolutePath().normalize();
+        JarSession session;
+        synchronized (this) {
+            session = sessions.get(key);
+        }
+        if (session != null && !session.isStale()) {
+            return session;
+        }
+
+        JarSession opened = JarSession.open(key);
+        JarSession result;
+        synchronized (this) {
+            result = sessions.get(key);
+            if (result == session || result == null) {
+                sessions.put(key, opened);
+                result = opened;
+            }
+        }
+        if (result != opened) { // opened by another thread meanwhile
+            opened.close();
+        } else if (session != null) {
+            session.close(); // stale
+        }
+        return result;
+    }
+
+    public synchronized boolean isOpen(Path jar) {
+        return sessions.containsKey(jar.toAbsolutePath().normalize());
+    }
+
+}
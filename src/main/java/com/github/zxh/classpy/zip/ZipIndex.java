@@ -0,0 +1,454 @@
+package com.github.zxh.classpy.zip;
+
+import com.github.zxh.classpy.common.ParseException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Entries of a zip (jar) file, read from its central directory without
+ * touching the entries themselves. Only the central directory and the
+ * offsets of its headers are kept, entries are read from the zip on
+ * request.
+ *
+ * Entries are sorted by name, so the entries under a folder are one
+ * range found by binary search:
+ * <pre>
+ * for (int i = index.firstIndexIn("a/b/"); i < index.endIndexIn("a/b/"); i++) {
+ *     String name = index.getName(i); // a/b/..., deeper entries included
+ * }
+ * </pre>
+ * Folders need not have entries of their own.
+ *
+ * The zip may be preceded by other bytes, like the launch script of an
+ * executable jar or the program of a self-extracting archive. Offsets in
+ * the zip are then relative to its start, which is found from the
+ * position and size of the central directory.
+ */
+public class ZipIndex {
+
+    public static final int STORED = 0;
+    public static final int DEFLATED = 8;
+
+    private static final int EOCD_SIG = 0x06054b50;
+    private static final int EOCD_LENGTH = 22;
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    private static final int ZIP64_LOCATOR_LENGTH = 20;
+    private static final int ZIP64_EOCD_SIG = 0x06064b50;
+    private static final int ZIP64_EOCD_LENGTH = 56;
+    private static final int LOC_SIG = 0x04034b50;
+    private static final int LOC_LENGTH = 30;
+    private static final int CEN_SIG = 0x02014b50;
+    private static final int CEN_LENGTH = 46;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    // offsets of size, compressed size and local header offset in a
+    // central directory header, in the order of the zip64 extra field
+    private static final int[] ZIP64_FIELDS = {24, 20, 42};
+    private static final int INFLATE_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Default of setMaxEntrySize().
+     */
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 256 * 1024 * 1024;
+
+    private final ZipSource source;
+    private final long base; // position of the zip in the source, after any prefix
+    private final ByteBuffer cen; // the central directory
+    private final String[] names;
+    private final int[] cenOffsets; // offset of the central directory header of each entry in cen
+    private final Map<Integer, ZipIndex> nestedIndexes = new ConcurrentHashMap<>();
+    private volatile int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+
+    private ZipIndex(ZipSource source, long base, ByteBuffer cen, String[] names, int[] cenOffsets) {
+        this.source = source;
+        this.base = base;
+        this.cen = cen;
+        this.names = names;
+        this.cenOffsets = cenOffsets;
+    }
+
+    /**
+     * Reads the central directory of the zip between position and limit
+     * of data. The buffer is kept, entries are read from it later.
+     * @param data
+     * @return
+     */
+    public static ZipIndex read(ByteBuffer data) {
+        return read(ZipSource.of(data));
+    }
+
+    static ZipIndex read(ZipSource source) {
+        // the EOCD record is at the end, followed by a comment of at most 64K
+        int tailLength = (int) Math.min(source.size(), EOCD_LENGTH + 0xFFFF);
+        long tailStart = source.size() - tailLength;
+        ByteBuffer tail = read(source, tailStart, tailLength);
+        int eocd = findEocd(tail);
+        long count = u2(tail, eocd + 10);
+        long cenSize = u4(tail, eocd + 12);
+        long cenOffset = u4(tail, eocd + 16);
+        long cenEnd = tailStart + eocd; // the central directory is followed by the (zip64) EOCD record
+        // a writer may add zip64 records even if the fields above fit, so
+        // look for them like ZipFile does, not only if a field is saturated
+        long zip64Eocd = findZip64Eocd(source, cenEnd);
+        ByteBuffer record = zip64Eocd < 0 ? null : read(source, zip64Eocd, ZIP64_EOCD_LENGTH);
+        if (record != null
+                && agrees(count, record.getLong(32), 0xFFFF)
+                && agrees(cenSize, record.getLong(40), 0xFFFFFFFFL)
+                && agrees(cenOffset, record.getLong(48), 0xFFFFFFFFL)) {
+            count = record.getLong(32);
+            cenSize = record.getLong(40);
+            cenOffset = record.getLong(48);
+            cenEnd = zip64Eocd;
+        } else if (count == 0xFFFF || cenSize == 0xFFFFFFFFL || cenOffset == 0xFFFFFFFFL) {
+            throw new ParseException("Missing zip64 end of central directory!");
+        }
+        if (cenSize < 0 || cenSize > cenEnd || cenSize > Integer.MAX_VALUE - 8
+                || cenOffset < 0 || cenOffset > cenEnd - cenSize
+                || count < 0 || count > cenSize / CEN_LENGTH) {
+            throw new ParseException("Invalid zip central directory!");
+        }
+        // bytes before the zip shift everything, but not the recorded offsets
+        long base = cenEnd - cenSize - cenOffset;
+        ByteBuffer cen = read(source, cenEnd - cenSize, (int) cenSize);
+
+        String[] names = new String[(int) count];
+        int[] offsets = new int[(int) count];
+        int end = cen.limit();
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            if (pos + CEN_LENGTH > end || cen.getInt(pos) != CEN_SIG) {
+                throw new ParseException("Invalid zip central directory header at " + pos);
+            }
+            int nameLength = u2(cen, pos + 28);
+            int next = pos + CEN_LENGTH + nameLength + u2(cen, pos + 30) + u2(cen, pos + 32);
+            if (next > end) {
+                throw new ParseException("Invalid zip central directory header at " + pos);
+            }
+            names[i] = decodeName(cen, pos + CEN_LENGTH, nameLength);
+            offsets[i] = pos;
+            pos = next;
+        }
+
+        return sorted(source, base, cen, names, offsets);
+    }
+
+    private static ByteBuffer read(ZipSource source, long position, int length) {
+        return source.read(position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int findEocd(ByteBuffer tail) {
+        for (int pos = tail.limit() - EOCD_LENGTH; pos >= 0; pos--) {
+            if (tail.getInt(pos) == EOCD_SIG
+                    && pos + EOCD_LENGTH + u2(tail, pos + 20) == tail.limit()) {
+                return pos;
+            }
+        }
+        throw new ParseException("Not a zip file!");
+    }
+
+    // a field of the EOCD record is either saturated or the same in the zip64 record
+    private static boolean agrees(long value, long zip64Value, long saturated) {
+        return value == saturated || value == zip64Value;
+    }
+
+    /**
+     * Returns the position of the zip64 EOCD record, or -1 if there is
+     * no locator before the EOCD record or no record where it points.
+     * The locator has the offset of the record, which is not its position
+     * if there are bytes before the zip; then the record is usually right
+     * before the locator. Either position is only taken if the record
+     * ends the central directory: base + offset must be the position,
+     * where base is the position less the central directory size and offset.
+     */
+    private static long findZip64Eocd(ZipSource source, long eocd) {
+        long locator = eocd - ZIP64_LOCATOR_LENGTH;
+        if (locator < 0 || read(source, locator, 4).getInt(0) != ZIP64_LOCATOR_SIG) {
+            return -1;
+        }
+        long offset = read(source, locator + 8, 8).getLong(0);
+        for (long pos : new long[] {offset, locator - ZIP64_EOCD_LENGTH}) {
+            if (pos < 0 || pos > locator - ZIP64_EOCD_LENGTH) {
+                continue;
+            }
+            ByteBuffer record = read(source, pos, ZIP64_EOCD_LENGTH);
+            if (record.getInt(0) != ZIP64_EOCD_SIG) {
+                continue;
+            }
+            long base = pos - record.getLong(40) - record.getLong(48);
+            if (base >= 0 && base + offset == pos) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private static String decodeName(ByteBuffer zip, int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer dup = zip.duplicate();
+        dup.position(offset);
+        dup.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ZipIndex sorted(ZipSource source, long base, ByteBuffer cen,
+                                   String[] names, int[] offsets) {
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> names[i]));
+
+        String[] sortedNames = new String[names.length];
+        int[] sortedOffsets = new int[names.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedNames[i] = names[order[i]];
+            sortedOffsets[i] = offsets[order[i]];
+        }
+        return new ZipIndex(source, base, cen, sortedNames, sortedOffsets);
+    }
+
+    /**
+     * Sets the max size of entries read by getData(), compressed or not,
+     * so a crafted zip can't make it allocate gigabytes. Nested jars
+     * indexed after inherit it.
+     * @param maxEntrySize
+     */
+    public void setMaxEntrySize(int maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public boolean isDirectory(int index) {
+        return names[index].endsWith("/");
+    }
+
+    /**
+     * @param index
+     * @return STORED, DEFLATED or other compression method
+     */
+    public int getMethod(int index) {
+        return u2(cen, cenOffsets[index] + 10);
+    }
+
+    public long getCompressedSize(int index) {
+        return getZip64Field(index, 1);
+    }
+
+    /**
+     * @param index
+     * @return uncompressed size
+     */
+    public long getSize(int index) {
+        return getZip64Field(index, 0);
+    }
+
+    /**
+     * @param index
+     * @return position of the local file header in the file or buffer the
+     *         index was read from, after bytes before the zip if there are any
+     */
+    public long getLocalHeaderOffset(int index) {
+        return base + getZip64Field(index, 2);
+    }
+
+    // the zip64 extra field has 8-byte values of the fields which are 0xFFFFFFFF
+    private long getZip64Field(int index, int field) {
+        int header = cenOffsets[index];
+        long value = u4(cen, header + ZIP64_FIELDS[field]);
+        if (value != 0xFFFFFFFFL) {
+            return value;
+        }
+
+        int extra = header + CEN_LENGTH + u2(cen, header + 28);
+        int extraEnd = extra + u2(cen, header + 30);
+        while (extra + 4 <= extraEnd) {
+            int id = u2(cen, extra);
+            int size = u2(cen, extra + 2);
+            if (id == ZIP64_EXTRA_ID) {
+                int pos = extra + 4;
+                for (int i = 0; i < field; i++) {
+                    if (u4(cen, header + ZIP64_FIELDS[i]) == 0xFFFFFFFFL) {
+                        pos += 8;
+                    }
+                }
+                if (pos + 8 > extra + 4 + size) {
+                    break;
+                }
+                return cen.getLong(pos);
+            }
+            extra += 4 + size;
+        }
+        throw new ParseException("Missing zip64 extra field of " + names[index]);
+    }
+
+    /**
+     * Returns the uncompressed bytes of the entry. A stored entry of a
+     * buffer is a read-only slice of it, other entries are read or
+     * inflated onto the heap.
+     * @param index
+     * @return buffer whose position is 0 and limit is the size of the entry
+     */
+    public ByteBuffer getData(int index) {
+        long dataOffset = getDataOffset(index);
+        long compressedSize = getCompressedSize(index);
+        long size = getSize(index);
+        if (size > maxEntrySize || compressedSize > maxEntrySize) {
+            throw new ParseException("Zip entry " + names[index] + " is too large: "
+                    + size + " bytes, limit: " + maxEntrySize);
+        }
+        switch (getMethod(index)) {
+            case STORED:
+                return source.read(dataOffset, (int) size);
+            case DEFLATED:
+                return inflate(source.read(dataOffset, (int) compressedSize), (int) size, names[index]);
+            default:
+                throw new ParseException("Unsupported compression method "
+                        + getMethod(index) + " of " + names[index]);
+        }
+    }
+
+    // checks the local header and sizes, the data is after the local header
+    private long getDataOffset(int index) {
+        long loc = getLocalHeaderOffset(index);
+        if (loc < 0 || loc > source.size() - LOC_LENGTH) {
+            throw new ParseException("Invalid zip local header of " + names[index]);
+        }
+        ByteBuffer header = read(source, loc, LOC_LENGTH);
+        if (header.getInt(0) != LOC_SIG) {
+            throw new ParseException("Invalid zip local header of " + names[index]);
+        }
+        long dataOffset = loc + LOC_LENGTH + u2(header, 26) + u2(header, 28);
+        long compressedSize = getCompressedSize(index);
+        long size = getSize(index);
+        if (compressedSize < 0 || compressedSize > Integer.MAX_VALUE - 8
+                || dataOffset > source.size() - compressedSize
+                || size < 0 || size > Integer.MAX_VALUE - 8
+                || (getMethod(index) == STORED && size != compressedSize)) {
+            throw new ParseException("Invalid zip entry size of " + names[index]);
+        }
+        return dataOffset;
+    }
+
+    /**
+     * Returns the index of a zip entry, like a jar in BOOT-INF/lib.
+     * A stored entry is indexed in place, a deflated one is inflated
+     * once, since its central directory is at its end. The result is cached.
+     * @param index
+     * @return
+     */
+    public ZipIndex getNested(int index) {
+        return nestedIndexes.computeIfAbsent(index, i -> {
+            ZipIndex nested = getMethod(i) == STORED
+                    ? read(source.window(getDataOffset(i), getSize(i)))
+                    : read(getData(i));
+            nested.setMaxEntrySize(maxEntrySize);
+            return nested;
+        });
+    }
+
+    // a heap buffer is inflated in place, others are copied in chunks
+    private static ByteBuffer inflate(ByteBuffer raw, int size, String name) {
+        byte[] output = new byte[size];
+        byte[] chunk = null;
+        Inflater inflater = new Inflater(true);
+        try {
+            if (raw.hasArray()) {
+                inflater.setInput(raw.array(), raw.arrayOffset() + raw.position(), raw.remaining());
+            } else {
+                chunk = new byte[Math.min(raw.remaining(), INFLATE_CHUNK_SIZE)];
+            }
+
+            int n = 0;
+            while (!inflater.finished() && !inflater.needsDictionary()) {
+                if (inflater.needsInput()) {
+                    if (chunk == null || !raw.hasRemaining()) {
+                        break;
+                    }
+                    int length = Math.min(chunk.length, raw.remaining());
+                    raw.get(chunk, 0, length);
+                    inflater.setInput(chunk, 0, length);
+                }
+                if (n < size) {
+                    n += inflater.inflate(output, n, size - n);
+                } else if (inflater.inflate(new byte[1]) > 0) {
+                    // only the end of the stream may follow the declared size
+                    throw new ParseException("Deflated data of " + name + " is longer than " + size);
+                }
+            }
+            if (n != size || !inflater.finished()) {
+                throw new ParseException("Invalid deflated data of " + name);
+            }
+            return ByteBuffer.wrap(output);
+        } catch (DataFormatException e) {
+            throw new ParseException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Returns the index of the entry, or -1.
+     * @param name
+     * @return
+     */
+    public int indexOf(String name) {
+        int i = lowerBound(name);
+        return i < names.length && names[i].equals(name) ? i : -1;
+    }
+
+    /**
+     * Returns the index of the first entry under dir.
+     * @param dir "" or a folder name ending with '/'
+     * @return
+     */
+    public int firstIndexIn(String dir) {
+        return lowerBound(dir);
+    }
+
+    /**
+     * Returns the index after the last entry under dir.
+     * @param dir "" or a folder name ending with '/'
+     * @return
+     */
+    public int endIndexIn(String dir) {
+        return dir.isEmpty() ? names.length : lowerBound(dir + Character.MAX_VALUE);
+    }
+
+    // index of the first name not less than key
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = names.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (names[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int u2(ByteBuffer buf, int index) {
+        return Short.toUnsignedInt(buf.getShort(index));
+    }
+
+    private static long u4(ByteBuffer buf, int index) {
+        return Integer.toUnsignedLong(buf.getInt(index));
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.github.zxh.classpy.zip;
+
+import com.github.zxh.classpy.common.ParseException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bytes of a zip, read by ZipIndex at positions from 0 to size().
+ * Reads may happen on many threads at the same time.
+ */
+abstract class ZipSource {
+
+    static ZipSource of(ByteBuffer data) {
+        return new BufferSource(data);
+    }
+
+    abstract long size();
+
+    /**
+     * Returns length bytes at position, in a buffer whose position is 0
+     * and limit is length. The buffer is a read-only view or a copy.
+     * @param position
+     * @param length
+     * @return
+     * @throws ParseException if the bytes are not in the source
+     * @throws java.io.UncheckedIOException if the bytes can't be read
+     */
+    abstract ByteBuffer read(long position, int length);
+
+    /**
+     * Returns the part of this source at offset, like a stored nested jar.
+     * @param offset
+     * @param size
+     * @return
+     */
+    ZipSource window(long offset, long size) {
+        checkRange(offset, size);
+        return new Window(this, offset, size);
+    }
+
+    final void checkRange(long position, long length) {
+        if (position < 0 || length < 0 || position > size() - length) {
+            throw new ParseException("Zip data out of range: " + position + "+" + length
+                    + ", size: " + size());
+        }
+    }
+
+
+    private static class BufferSource extends ZipSource {
+
+        private final ByteBuffer data; // read-only, from position 0
+
+        BufferSource(ByteBuffer data) {
+            this.data = data.slice().asReadOnlyBuffer();
+        }
+
+        @Override
+        long size() {
+            return data.limit();
+        }
+
+        @Override
+        ByteBuffer read(long position, int length) {
+            checkRange(position, length);
+            ByteBuffer dup = data.duplicate();
+            dup.position((int) position);
+            dup.limit((int) position + length);
+            return dup.slice();
+        }
+
+        // a part of a buffer is a slice, not a chain of windows
+        @Override
+        ZipSource window(long offset, long size) {
+            checkRange(offset, size);
+            return new BufferSource(read(offset, (int) size));
+        }
+
+    }
+
+    private static class Window extends ZipSource {
+
+        private final ZipSource source;
+        private final long offset;
+        private final long size;
+
+        Window(ZipSource source, long offset, long size) {
+            this.source = source;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        long size() {
+            return size;
+        }
+
+        @Override
+        ByteBuffer read(long position, int length) {
+            checkRange(position, length);
+            return source.read(offset + position, length);
+        }
+
+        @Override
+        ZipSource window(long offset, long size) {
+            checkRange(offset, size);
+            return new Window(source, this.offset + offset, size);
+        }
+
+    }
+
+}
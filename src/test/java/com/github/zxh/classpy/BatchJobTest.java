@@ -0,0 +1,75 @@
+package com.github.zxh.classpy;
+
+import com.github.zxh.classpy.cli.BatchJob;
+import com.github.zxh.classpy.cli.BatchOutput;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class BatchJobTest {
+
+    @Test
+    public void treesToZip() throws Exception {
+        Path classes = Paths.get(BatchJobTest.class.getResource("BatchJobTest.class").toURI()).getParent();
+        long classCount;
+        try (Stream<Path> files = Files.walk(classes)) {
+            classCount = files.filter(f -> f.toString().endsWith(".class")).count();
+        }
+
+        // the same input twice, results must not collide
+        Path zipFile = Files.createTempFile("classpy", ".zip");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BatchJob job;
+            try (BatchOutput output = BatchOutput.open(zipFile)) {
+                job = new BatchJob(BatchJob.Mode.TREE, output);
+                job.run(Arrays.asList(classes, classes), pool);
+            }
+            assertEquals(2 * classCount, job.getClassCount());
+            assertEquals(Collections.emptyList(), job.getErrors());
+
+            try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+                assertEquals(2 * classCount, zip.size());
+                assertNotNull(zip.getEntry("0-classpy/BatchJobTest.txt"));
+                assertNotNull(zip.getEntry("1-classpy/BatchJobTest.txt"));
+            }
+        } finally {
+            pool.shutdown();
+            Files.delete(zipFile);
+        }
+    }
+
+    @Test
+    public void errorIsolation() throws Exception {
+        Path dir = Files.createTempDirectory("classpy");
+        Path bad = Files.write(dir.resolve("Bad.class"), new byte[] {(byte) 0xCA, (byte) 0xFE});
+        Path notJar = Files.write(dir.resolve("not.jar"), new byte[] {1, 2, 3});
+        Path good = Paths.get(BatchJobTest.class.getResource("BatchJobTest.class").toURI());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            BatchJob job = new BatchJob(BatchJob.Mode.SUMMARY, null);
+            job.run(Arrays.asList(bad, notJar, good), pool);
+            assertEquals(2, job.getClassCount());
+            assertEquals(2, job.getErrors().size());
+            assertEquals(1, job.getSummaryLines().size());
+            assertTrue(job.getSummaryLines().get(0).startsWith("2-BatchJobTest.class\tcom/github/zxh/classpy/BatchJobTest\t"));
+        } finally {
+            pool.shutdown();
+            Files.delete(bad);
+            Files.delete(notJar);
+            Files.delete(dir);
+        }
+    }
+
+}
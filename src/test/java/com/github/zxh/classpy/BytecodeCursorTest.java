@@ -0,0 +1,137 @@
+package com.github.zxh.classpy;
+
+import com.github.zxh.classpy.classfile.bytecode.BytecodeCursor;
+import com.github.zxh.classpy.classfile.jvm.Opcode;
+import com.github.zxh.classpy.common.ParseException;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BytecodeCursorTest {
+
+    @Test
+    public void operands() {
+        BytecodeCursor cursor = cursor(
+                0x10, 0xfe,                   // 0: bipush -2
+                0xc4, 0x84, 0x01, 0x02, 0xff, 0x00, // 2: wide iinc 258, -256
+                0xc4, 0x15, 0x00, 0x05,       // 8: wide iload 5
+                0xa7, 0xff, 0xf4,             // 12: goto 0
+                0xc8, 0x00, 0x00, 0x00, 0x05, // 15: goto_w 20
+                0xb1);                        // 20: return
+
+        assertTrue(cursor.next());
+        assertEquals(Opcode.bipush, cursor.getOpcode());
+        assertEquals(-2, cursor.s1());
+
+        assertTrue(cursor.next());
+        assertEquals(2, cursor.getPc());
+        assertEquals(Opcode.iinc, cursor.getOpcode());
+        assertTrue(cursor.isWide());
+        assertEquals(258, cursor.localIndex());
+        assertEquals(-256, cursor.iincConst());
+
+        assertTrue(cursor.next());
+        assertEquals(Opcode.iload, cursor.getOpcode());
+        assertEquals(5, cursor.localIndex());
+        assertEquals(4, cursor.getLength());
+
+        assertTrue(cursor.next());
+        assertFalse(cursor.isWide());
+        assertEquals(0, cursor.branchTarget());
+
+        assertTrue(cursor.next());
+        assertEquals(20, cursor.branchTarget());
+
+        assertTrue(cursor.next());
+        assertEquals(Opcode._return, cursor.getOpcode());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void switches() {
+        BytecodeCursor cursor = cursor(
+                0x00,                         // 0: nop
+                0xaa, 0x00, 0x00,             // 1: tableswitch, padding
+                0, 0, 0, 31,                  // default
+                0, 0, 0, 1, 0, 0, 0, 2,       // low, high
+                0, 0, 0, 27, 0, 0, 0, 28,     // jump offsets
+                0xab,                         // 24: lookupswitch
+                0x00, 0x00, 0x00,             // padding
+                0, 0, 0, 20,                  // default
+                0, 0, 0, 1,                   // npairs
+                0xff, 0xff, 0xff, 0x9c, 0, 0, 0, 21, // -100: 45
+                0xb1, 0xb1);                  // 44, 45: return
+
+        cursor.next();
+        assertTrue(cursor.next());
+        assertEquals(Opcode.tableswitch, cursor.getOpcode());
+        assertEquals(2, cursor.switchCaseCount());
+        assertEquals(32, cursor.switchDefault());
+        assertEquals(2, cursor.switchMatch(1));
+        assertEquals(28, cursor.switchTarget(0));
+        assertEquals(29, cursor.switchTarget(1));
+        assertEquals(24, cursor.getNextPc());
+
+        assertTrue(cursor.next());
+        assertEquals(Opcode.lookupswitch, cursor.getOpcode());
+        assertEquals(1, cursor.switchCaseCount());
+        assertEquals(44, cursor.switchDefault());
+        assertEquals(-100, cursor.switchMatch(0));
+        assertEquals(45, cursor.switchTarget(0));
+        assertEquals(44, cursor.getNextPc());
+    }
+
+    @Test(expected = ParseException.class)
+    public void truncated() {
+        BytecodeCursor cursor = cursor(0x11, 0x00); // sipush without 2nd byte
+        cursor.next();
+    }
+
+    @Test(expected = ParseException.class)
+    public void tableswitchHighBelowLow() {
+        // high - low + 1 = -4 used to make the length 0, so next() never advanced
+        BytecodeCursor cursor = cursor(
+                0xaa, 0x00, 0x00, 0x00,       // tableswitch, padding
+                0, 0, 0, 16,                  // default
+                0, 0, 0, 4, 0xff, 0xff, 0xff, 0xff); // low 4, high -1
+        cursor.next();
+    }
+
+    @Test(expected = ParseException.class)
+    public void tableswitchOverflow() {
+        BytecodeCursor cursor = cursor(
+                0xaa, 0x00, 0x00, 0x00,
+                0, 0, 0, 16,
+                0x80, 0, 0, 0, 0x7f, 0xff, 0xff, 0xff); // low MIN_VALUE, high MAX_VALUE
+        cursor.next();
+    }
+
+    @Test(expected = ParseException.class)
+    public void lookupswitchNegativePairs() {
+        BytecodeCursor cursor = cursor(
+                0xab, 0x00, 0x00, 0x00,       // lookupswitch, padding
+                0, 0, 0, 12,                  // default
+                0xff, 0xff, 0xff, 0xff);      // npairs -1
+        cursor.next();
+    }
+
+    @Test(expected = ParseException.class)
+    public void truncatedSwitch() {
+        BytecodeCursor cursor = cursor(0x00, 0xab, 0x00, 0x00, 0, 0, 0, 8);
+        cursor.next();
+        cursor.next();
+    }
+
+    private static BytecodeCursor cursor(int... code) {
+        byte[] bytes = new byte[code.length];
+        for (int i = 0; i < code.length; i++) {
+            bytes[i] = (byte) code[i];
+        }
+        return new BytecodeCursor(ByteBuffer.wrap(bytes));
+    }
+
+}
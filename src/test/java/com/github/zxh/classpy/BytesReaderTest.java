@@ -3,9 +3,15 @@ package com.github.zxh.classpy;
 import com.github.zxh.classpy.common.BytesReader;
 import org.junit.Test;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  *
@@ -19,5 +25,94 @@ public class BytesReaderTest {
                 ByteOrder.BIG_ENDIAN);
         assertEquals(0x1234, be.readShort());
     }
+
+    @Test
+    public void directBuffer() {
+        ByteBuffer data = ByteBuffer.allocateDirect(4);
+        data.put(new byte[] {0x00, 0x12, 0x34, 0x56}).flip();
+        data.position(1);
+
+        BytesReader le = new BytesReader(data, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0, le.getPosition());
+        assertEquals(0x3412, le.readShort());
+        assertEquals(0x56, le.readUnsignedByte());
+        assertEquals(1, data.position());
+    }
+
+    @Test
+    public void sliceAndSkip() {
+        byte[] data = {0x01, 0x02, 0x03, 0x04, 0x05};
+        BytesReader reader = new BytesReader(data, ByteOrder.BIG_ENDIAN);
+        reader.skipBytes(1);
+        ByteBuffer slice = reader.slice(reader.getPosition(), 3);
+        assertTrue(slice.isReadOnly());
+        assertEquals(3, slice.remaining());
+        assertEquals(0x0203, slice.getShort());
+        assertEquals(1, reader.getPosition());
+
+        data[3] = 0x44; // no copy
+        assertEquals(0x44, slice.get());
+
+        reader.skipBytes(4);
+        assertEquals(5, reader.getPosition());
+    }
+
+    @Test
+    public void readUnsignedShorts() {
+        BytesReader reader = new BytesReader(new byte[] {0x00, 0x01, (byte) 0xff, (byte) 0xfe, 0x12, 0x34},
+                ByteOrder.BIG_ENDIAN);
+        reader.skipBytes(2);
+        int[] values = reader.readUnsignedShorts(2);
+        assertEquals(0xfffe, values[0]);
+        assertEquals(0x1234, values[1]);
+        assertEquals(6, reader.getPosition());
+    }
+
+    @Test
+    public void unchecked() {
+        byte[] data = new byte[64];
+        new Random(1).nextBytes(data);
+        ByteBuffer buf = ByteBuffer.wrap(data, 3, 60).slice();
+        BytesReader checked = new BytesReader(buf, ByteOrder.BIG_ENDIAN);
+        BytesReader unchecked = new BytesReader(buf, ByteOrder.BIG_ENDIAN);
+        unchecked.setUnchecked(true);
+        assertTrue(unchecked.isUnchecked());
+
+        for (BytesReader reader : new BytesReader[] {checked, unchecked}) {
+            reader.skipBytes(1);
+        }
+        assertEquals(checked.readByte(), unchecked.readByte());
+        assertEquals(checked.readUnsignedByte(), unchecked.readUnsignedByte());
+        assertEquals(checked.readShort(), unchecked.readShort());
+        assertEquals(checked.readUnsignedShort(), unchecked.readUnsignedShort());
+        assertEquals(checked.readInt(), unchecked.readInt());
+        assertEquals(checked.readUnsignedInt(), unchecked.readUnsignedInt());
+        assertEquals(checked.readLong(), unchecked.readLong());
+        assertEquals(Float.floatToRawIntBits(checked.readFloat()),
+                Float.floatToRawIntBits(unchecked.readFloat()));
+        assertEquals(Double.doubleToRawLongBits(checked.readDouble()),
+                Double.doubleToRawLongBits(unchecked.readDouble()));
+        assertArrayEquals(checked.readBytes(3), unchecked.readBytes(3));
+        assertArrayEquals(checked.readUnsignedShorts(4), unchecked.readUnsignedShorts(4));
+        assertEquals(checked.getPosition(), unchecked.getPosition());
+        assertEquals(checked.getInt(7), unchecked.getInt(7));
+        assertEquals(checked.getShort(9), unchecked.getShort(9));
+        assertEquals(checked.getByte(59), unchecked.getByte(59));
+    }
+
+    @Test
+    public void uncheckedNeedsArray() {
+        BytesReader direct = new BytesReader(ByteBuffer.allocateDirect(4), ByteOrder.BIG_ENDIAN);
+        direct.setUnchecked(true);
+        assertFalse(direct.isUnchecked());
+        BytesReader le = new BytesReader(new byte[4], ByteOrder.LITTLE_ENDIAN);
+        le.setUnchecked(true);
+        assertFalse(le.isUnchecked());
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void skipPastEnd() {
+        new BytesReader(new byte[2], ByteOrder.BIG_ENDIAN).skipBytes(3);
+    }
     
 }
@@ -4,6 +4,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.junit.Test;
 import static com.github.zxh.classpy.classfile.jvm.Mutf8Decoder.decodeMutf8;
@@ -47,6 +49,43 @@ public class Mutf8DecoderTest {
         assertEquals(str, decodeMutf8(bytes));
     }
     
+    @Test
+    public void mixed() throws IOException {
+        String str = "abc汉字\u0000def\ud801\udc00g";
+        assertEquals(str, decodeMutf8(encodeMutf8(str)));
+    }
+    
+    @Test
+    public void bufferSlice() throws IOException {
+        byte[] bytes = encodeMutf8("xx汉字yy");
+        ByteBuffer buf = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        assertEquals("汉字", decodeMutf8(buf, 2, 6));
+        assertEquals(0, buf.position());
+    }
+    
+    @Test
+    public void allChars() throws IOException {
+        // writeUTF() accepts at most 65535 bytes
+        for (int from = 0; from <= 0xFFFF; from += 20000) {
+            StringBuilder sb = new StringBuilder();
+            for (int c = from; c < Math.min(from + 20000, 0x10000); c++) {
+                sb.append((char) c);
+            }
+            String str = sb.toString();
+            assertEquals(str, decodeMutf8(encodeMutf8(str)));
+        }
+    }
+    
+    @Test(expected = UTFDataFormatException.class)
+    public void partialChar() throws IOException {
+        decodeMutf8(new byte[] {'a', (byte) 0xE6, (byte) 0xB1});
+    }
+    
+    @Test(expected = UTFDataFormatException.class)
+    public void malformed() throws IOException {
+        decodeMutf8(new byte[] {'a', (byte) 0xF0, (byte) 0x90, (byte) 0x80, (byte) 0x80});
+    }
+    
     private static byte[] encodeMutf8(String str) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         DataOutput out = new DataOutputStream(baos);
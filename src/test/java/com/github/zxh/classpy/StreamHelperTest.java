@@ -0,0 +1,73 @@
+package com.github.zxh.classpy;
+
+import com.github.zxh.classpy.helper.StreamHelper;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamHelperTest {
+
+    private static final byte[] DATA = new byte[100_000];
+    static {
+        new Random(1).nextBytes(DATA);
+    }
+
+    @Test
+    public void sizeHints() throws IOException {
+        for (long sizeHint : new long[] {-1, 0, 10, DATA.length, DATA.length * 2L, Long.MAX_VALUE}) {
+            assertData(StreamHelper.readAll(new TrickleInputStream(DATA), sizeHint));
+            assertData(StreamHelper.readAll(Channels.newChannel(new TrickleInputStream(DATA)), sizeHint));
+        }
+    }
+
+    @Test
+    public void exactHintNoCopy() throws IOException {
+        ByteBuffer buf = StreamHelper.readAll(new ByteArrayInputStream(DATA), DATA.length);
+        assertEquals(DATA.length + 1, buf.array().length);
+        assertData(buf);
+    }
+
+    @Test
+    public void readPrefix() throws IOException {
+        TrickleInputStream in = new TrickleInputStream(DATA);
+        assertEquals(ByteBuffer.wrap(DATA, 0, 1000), ByteBuffer.wrap(StreamHelper.readPrefix(in, 1000)));
+        assertEquals(DATA[1000], (byte) in.read());
+
+        byte[] all = StreamHelper.readPrefix(new ByteArrayInputStream(DATA), DATA.length + 10);
+        assertEquals(ByteBuffer.wrap(DATA), ByteBuffer.wrap(all));
+    }
+
+    private static void assertData(ByteBuffer buf) {
+        assertEquals(0, buf.position());
+        assertEquals(DATA.length, buf.remaining());
+        assertEquals(ByteBuffer.wrap(DATA), buf);
+    }
+
+    // returns a few bytes per read and nothing from available(),
+    // like network and zip streams
+    private static class TrickleInputStream extends FilterInputStream {
+
+        TrickleInputStream(byte[] data) {
+            super(new ByteArrayInputStream(data));
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 777));
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+
+    }
+
+}
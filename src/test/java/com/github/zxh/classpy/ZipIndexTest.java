@@ -0,0 +1,319 @@
+package com.github.zxh.classpy;
+
+import com.github.zxh.classpy.common.ParseException;
+import com.github.zxh.classpy.zip.JarSession;
+import com.github.zxh.classpy.zip.JarSessionPool;
+import com.github.zxh.classpy.zip.ZipIndex;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ZipIndexTest {
+
+    @Test
+    public void sortedEntries() throws IOException {
+        ZipIndex index = ZipIndex.read(zip("b/X.class", "a/", "a/c/Z.class", "a/Y.class", "README"));
+        assertEquals(5, index.size());
+        assertEquals("README", index.getName(0));
+        assertEquals("a/", index.getName(1));
+        assertEquals("a/Y.class", index.getName(2));
+        assertEquals("a/c/Z.class", index.getName(3));
+        assertEquals("b/X.class", index.getName(4));
+
+        assertEquals(2, index.indexOf("a/Y.class"));
+        assertEquals(-1, index.indexOf("a/Y"));
+        assertEquals(1, index.firstIndexIn("a/"));
+        assertEquals(4, index.endIndexIn("a/"));
+        assertEquals(3, index.firstIndexIn("a/c/"));
+        assertEquals(4, index.endIndexIn("a/c/"));
+        assertEquals(0, index.firstIndexIn(""));
+        assertEquals(5, index.endIndexIn(""));
+
+        int i = index.indexOf("b/X.class");
+        assertEquals(ZipIndex.DEFLATED, index.getMethod(i));
+        assertEquals("b/X.class".length(), index.getSize(i));
+    }
+
+    @Test
+    public void storedEntry() throws IOException {
+        byte[] data = {1, 2, 3, 4, 5};
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("pad"));
+            zip.write(new byte[100]);
+            ZipEntry entry = new ZipEntry("stored");
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCrc(crc.getValue());
+            zip.putNextEntry(entry);
+            zip.write(data);
+        }
+
+        ZipIndex index = ZipIndex.read(ByteBuffer.wrap(bytes.toByteArray()));
+        int i = index.indexOf("stored");
+        assertEquals(ZipIndex.STORED, index.getMethod(i));
+        assertEquals(5, index.getSize(i));
+        assertEquals(5, index.getCompressedSize(i));
+        assertTrue(index.getLocalHeaderOffset(i) > 0);
+
+        ByteBuffer entryData = index.getData(i);
+        assertTrue(entryData.isReadOnly()); // a slice, not a copy
+        assertEquals(ByteBuffer.wrap(data), entryData);
+        assertEquals(ByteBuffer.wrap(new byte[100]), index.getData(index.indexOf("pad")));
+    }
+
+    @Test
+    public void deflatedEntries() throws IOException {
+        ZipIndex index = ZipIndex.read(zip("a/Y.class", "b/X.class"));
+        for (int i = 0; i < index.size(); i++) {
+            assertEquals(ByteBuffer.wrap(index.getName(i).getBytes("UTF-8")), index.getData(i));
+        }
+    }
+
+    @Test
+    public void entrySizeLimit() throws IOException {
+        ZipIndex index = ZipIndex.read(zip("a/Y.class"));
+        index.setMaxEntrySize(5);
+        try {
+            index.getData(0);
+            fail();
+        } catch (ParseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void wrongDeclaredSize() throws IOException {
+        for (int declaredSize : new int[] {5, 20}) {
+            ByteBuffer zip = zip("a/Y.class");
+            int cen = zip.limit() - 22 - (46 + "a/Y.class".length()); // the only central directory header
+            assertEquals(0x02014b50, Integer.reverseBytes(zip.getInt(cen)));
+            zip.putInt(cen + 24, Integer.reverseBytes(declaredSize));
+            try {
+                ZipIndex.read(zip).getData(0);
+                fail();
+            } catch (ParseException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void jarSessions() throws IOException {
+        Path dir = Files.createTempDirectory("classpy");
+        try {
+            JarSessionPool pool = new JarSessionPool(2);
+            Path[] jars = new Path[3];
+            for (int i = 0; i < jars.length; i++) {
+                jars[i] = dir.resolve(i + ".jar");
+                ByteBuffer zip = zip("C" + i + ".class");
+                Files.write(jars[i], Arrays.copyOf(zip.array(), zip.limit()));
+                assertEquals(ByteBuffer.wrap(("C" + i + ".class").getBytes("UTF-8")),
+                        pool.get(jars[i]).read("C" + i + ".class"));
+            }
+            assertSame(pool.get(jars[2]), pool.get(jars[2]));
+            assertTrue(pool.isOpen(jars[1]) && pool.isOpen(jars[2]));
+            assertFalse(pool.isOpen(jars[0])); // least recently used
+        } finally {
+            for (String name : new String[] {"0.jar", "1.jar", "2.jar"}) {
+                Files.deleteIfExists(dir.resolve(name));
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void changedJar() throws IOException {
+        Path jar = Files.createTempFile("classpy", ".jar");
+        try {
+            ByteBuffer zip = zip("A.class", "B.class");
+            Files.write(jar, Arrays.copyOf(zip.array(), zip.limit()));
+            JarSessionPool pool = new JarSessionPool(2);
+            JarSession session = pool.get(jar);
+            ByteBuffer a = ByteBuffer.wrap("A.class".getBytes("UTF-8"));
+            assertEquals(a, session.read("A.class"));
+
+            session.close(); // still usable, the jar is opened for each read
+            assertEquals(a, session.read("A.class"));
+
+            // truncated while a tree still holds the index
+            Files.write(jar, Arrays.copyOf(zip.array(), 10));
+            assertTrue(session.isStale());
+            try {
+                session.read("B.class");
+                fail();
+            } catch (IOException e) {
+                // expected
+            }
+            ZipIndex index = session.getIndex();
+            try {
+                index.getData(index.indexOf("B.class"));
+                fail();
+            } catch (UncheckedIOException e) {
+                // expected
+            }
+
+            zip = zip("C.class");
+            Files.write(jar, Arrays.copyOf(zip.array(), zip.limit()));
+            JarSession reopened = pool.get(jar);
+            assertNotSame(session, reopened);
+            assertEquals(ByteBuffer.wrap("C.class".getBytes("UTF-8")), reopened.read("C.class"));
+            reopened.close();
+        } finally {
+            Files.delete(jar);
+        }
+    }
+
+    @Test
+    public void zip64EntryCount() throws IOException {
+        String[] names = new String[70_000];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = String.format("p%d/C%05d.class", i % 7, i);
+        }
+        ZipIndex index = ZipIndex.read(zip(names));
+        assertEquals(70_000, index.size());
+        assertEquals(10_000, index.endIndexIn("p3/") - index.firstIndexIn("p3/"));
+    }
+
+    @Test
+    public void nestedJars() throws IOException {
+        ByteBuffer inner = zip("a/B.class");
+        byte[] innerBytes = Arrays.copyOf(inner.array(), inner.limit());
+        CRC32 crc = new CRC32();
+        crc.update(innerBytes);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            ZipEntry stored = new ZipEntry("lib/stored.jar");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(innerBytes.length);
+            stored.setCrc(crc.getValue());
+            zip.putNextEntry(stored);
+            zip.write(innerBytes);
+            zip.putNextEntry(new ZipEntry("lib/deflated.jar"));
+            zip.write(innerBytes);
+        }
+
+        Path jar = Files.createTempFile("classpy", ".jar");
+        try {
+            Files.write(jar, bytes.toByteArray());
+            try (JarSession session = JarSession.open(jar)) {
+                ByteBuffer expected = ByteBuffer.wrap("a/B.class".getBytes("UTF-8"));
+                assertEquals(expected, session.read("lib/stored.jar!/a/B.class"));
+                assertEquals(expected, session.read("lib/deflated.jar!/a/B.class"));
+
+                ZipIndex index = session.getIndex();
+                int i = index.indexOf("lib/deflated.jar");
+                assertSame(index.getNested(i), index.getNested(i));
+            }
+        } finally {
+            Files.delete(jar);
+        }
+    }
+
+    @Test
+    public void prefixedZip() throws IOException {
+        // like an executable jar, a shell script followed by the jar
+        byte[] script = "#!/bin/sh\nexec java -jar \"$0\" \"$@\"\n".getBytes("UTF-8");
+        for (ByteBuffer zip : new ByteBuffer[] {zip("a/B.class", "C.class"), zip64()}) {
+            ZipIndex index = ZipIndex.read(prefixed(script, zip));
+            for (String name : new String[] {"a/B.class", "C.class"}) {
+                int i = index.indexOf(name);
+                assertTrue(index.getLocalHeaderOffset(i) >= script.length);
+                assertEquals(ByteBuffer.wrap(name.getBytes("UTF-8")), index.getData(i));
+            }
+        }
+    }
+
+    @Test
+    public void zip64RecordsOfSmallZip() throws IOException {
+        // zip64 records although the EOCD record fields fit, as some writers do
+        ByteBuffer zip = withZip64Records(zip("a/B.class", "C.class"));
+        byte[] script = "#!/bin/sh\n".getBytes("UTF-8");
+        for (ByteBuffer bytes : new ByteBuffer[] {zip, prefixed(script, zip)}) {
+            ZipIndex index = ZipIndex.read(bytes);
+            assertEquals(2, index.size());
+            for (String name : new String[] {"a/B.class", "C.class"}) {
+                assertEquals(ByteBuffer.wrap(name.getBytes("UTF-8")), index.getData(index.indexOf(name)));
+            }
+        }
+    }
+
+    private static ByteBuffer prefixed(byte[] prefix, ByteBuffer zip) {
+        byte[] bytes = new byte[prefix.length + zip.limit()];
+        System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+        System.arraycopy(zip.array(), 0, bytes, prefix.length, zip.limit());
+        return ByteBuffer.wrap(bytes);
+    }
+
+    // inserts zip64 EOCD and locator records before the EOCD record of a zip without comment
+    private static ByteBuffer withZip64Records(ByteBuffer zip) {
+        ByteBuffer eocd = zip.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        eocd.position(zip.limit() - 22);
+        eocd = eocd.slice().order(ByteOrder.LITTLE_ENDIAN);
+        long cenSize = Integer.toUnsignedLong(eocd.getInt(12));
+        long cenOffset = Integer.toUnsignedLong(eocd.getInt(16));
+        long count = Short.toUnsignedInt(eocd.getShort(10));
+
+        ByteBuffer bytes = ByteBuffer.allocate(zip.limit() + 56 + 20).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.put(zip.array(), 0, zip.limit() - 22);
+        bytes.putInt(0x06064b50).putLong(44).putShort((short) 45).putShort((short) 45)
+                .putInt(0).putInt(0).putLong(count).putLong(count)
+                .putLong(cenSize).putLong(cenOffset);
+        bytes.putInt(0x07064b50).putInt(0).putLong(cenOffset + cenSize).putInt(1);
+        bytes.put(eocd);
+        bytes.flip();
+        return bytes;
+    }
+
+    // a zip64 archive with the entries a/B.class and C.class
+    private static ByteBuffer zip64() throws IOException {
+        String[] names = new String[70_000];
+        names[0] = "a/B.class";
+        names[1] = "C.class";
+        for (int i = 2; i < names.length; i++) {
+            names[i] = "d/" + i;
+        }
+        return zip(names);
+    }
+
+    @Test(expected = ParseException.class)
+    public void notZip() {
+        ZipIndex.read(ByteBuffer.wrap(new byte[100]));
+    }
+
+    // entries are deflated, each contains its name
+    private static ByteBuffer zip(String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String name : names) {
+                zip.putNextEntry(new ZipEntry(name));
+                if (!name.endsWith("/")) {
+                    zip.write(name.getBytes("UTF-8"));
+                }
+            }
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+}
@@ -2,15 +2,61 @@ package com.github.zxh.classpy.classfile;
 
 import com.github.zxh.classpy.classfile.testclasses.*;
 import com.github.zxh.classpy.classfile.testclasses.annotations.MyRuntimeAnnotation;
+import com.github.zxh.classpy.classfile.attribute.AttributeFactory;
+import com.github.zxh.classpy.classfile.attribute.CodeAttribute;
+import com.github.zxh.classpy.classfile.attribute.NestHostAttribute;
+import com.github.zxh.classpy.classfile.attribute.NestMembersAttribute;
+import com.github.zxh.classpy.classfile.attribute.RecordAttribute;
+import com.github.zxh.classpy.classfile.attribute.UndefinedAttribute;
+import com.github.zxh.classpy.classfile.bytecode.BytecodeCursor;
+import com.github.zxh.classpy.classfile.bytecode.Instruction;
+import com.github.zxh.classpy.classfile.constant.ConstantDoubleInfo;
+import com.github.zxh.classpy.classfile.constant.ConstantFieldrefInfo;
+import com.github.zxh.classpy.classfile.constant.ConstantInfo;
+import com.github.zxh.classpy.classfile.constant.ConstantInterfaceMethodrefInfo;
+import com.github.zxh.classpy.classfile.constant.ConstantLongInfo;
+import com.github.zxh.classpy.classfile.constant.ConstantPool;
+import com.github.zxh.classpy.classfile.constant.ConstantMethodrefInfo;
+import com.github.zxh.classpy.classfile.constant.MemberRef;
+import com.github.zxh.classpy.classfile.datatype.U2Array;
+import com.github.zxh.classpy.classfile.datatype.U2CpIndex;
+import com.github.zxh.classpy.classfile.jvm.Opcode;
+import com.github.zxh.classpy.common.ComponentArena;
+import com.github.zxh.classpy.common.FileComponent;
+import com.github.zxh.classpy.common.ParseException;
+import com.github.zxh.classpy.common.SymbolTable;
+import com.github.zxh.classpy.helper.FileHelper;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class ClassFileTest {
+
+    // testclasses.ConstantPool, named by path since ConstantPool is imported
+    private static final String TEST_CONSTANT_POOL =
+            "com/github/zxh/classpy/classfile/testclasses/ConstantPool.class";
     
     @Test
     public void simpleClass() throws Exception {
@@ -26,7 +72,7 @@ public class ClassFileTest {
 
     @Test
     public void constantPool() throws Exception {
-        loadClass(ConstantPool.class);
+        loadClass(TEST_CONSTANT_POOL);
     }
     
     @Test
@@ -75,14 +121,533 @@ public class ClassFileTest {
         loadClass(ByteCode.class);
     }
     
+    @Test
+    public void mappedClassFile() throws Exception {
+        ClassFile heap = loadClass(SimpleClass.class);
+        ClassFile mapped = new ClassFileParser().parse(FileHelper.mapFile(getClassFilePath(SimpleClass.class)));
+        assertEquals(heap.getLength(), mapped.getLength());
+        assertEquals(heap.getUInt("methods_count"), mapped.getUInt("methods_count"));
+    }
+    
+    @Test
+    public void scan() throws Exception {
+        byte[] classBytes = Files.readAllBytes(getClassFilePath(SimpleClass.class));
+        ClassSummary summary = new ClassFileParser().scan(classBytes);
+        ClassFile cf = new ClassFileParser().parse(classBytes);
+        assertEquals(cf.getUInt("major_version"), summary.majorVersion);
+        assertEquals(cf.getUInt("access_flags"), summary.accessFlags);
+        assertEquals("com/github/zxh/classpy/classfile/testclasses/SimpleClass", summary.thisClass);
+        assertEquals("java/lang/Object", summary.superClass);
+        assertEquals("[java/lang/Runnable, java/lang/Comparable]", summary.interfaces.toString());
+        assertEquals("[x, y]", summary.fields.stream().map(f -> f.name).collect(Collectors.toList()).toString());
+        assertEquals(cf.getUInt("methods_count"), summary.methods.size());
+        assertEquals("run()V", summary.methods.get(1).toString());
+        assertEquals("[Code]", summary.methods.get(1).attributes.toString());
+        assertEquals(cf.getUInt("attributes_count"), summary.attributes.size());
+    }
+    
+    @Test
+    public void scanMalformed() throws Exception {
+        byte[] classBytes = classWithCode(0xb1);
+        assertEquals("[m()V]", new ClassFileParser().scan(classBytes).methods.toString());
+
+        byte[] hugeInterfacesCount = classBytes.clone();
+        hugeInterfacesCount[62] = (byte) 0xff;
+        assertScanFails(hugeInterfacesCount);
+
+        byte[] negativeAttributeLength = classBytes.clone();
+        negativeAttributeLength[78] = (byte) 0xff; // attribute_length of Code
+        assertScanFails(negativeAttributeLength);
+    }
+
+    private static void assertScanFails(byte[] classBytes) {
+        for (boolean trusted : new boolean[] {false, true}) {
+            ClassFileParser parser = new ClassFileParser();
+            parser.setTrusted(trusted);
+            try {
+                parser.scan(classBytes);
+                fail();
+            } catch (ParseException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void accept() throws Exception {
+        byte[] classBytes = Files.readAllBytes(getClassFilePath(ByteCode.class));
+        List<String> visited = new ArrayList<>();
+        new ClassFileParser().accept(ByteBuffer.wrap(classBytes), new ClassFileVisitor() {
+
+            @Override
+            public boolean visitMethod(int accessFlags, String name, String descriptor) {
+                visited.add(name);
+                return true;
+            }
+
+            @Override
+            public boolean visitAttribute(String name, int offset, int length) {
+                return name.equals("Code");
+            }
+
+            @Override
+            public void visitInstruction(int pc, Opcode opcode) {
+                visited.add(pc + ":" + opcode);
+            }
+
+        });
+
+        List<String> parsed = new ArrayList<>();
+        ClassFile cf = new ClassFileParser().parse(classBytes);
+        for (FileComponent c : cf.methods().getComponents()) {
+            MethodInfo method = (MethodInfo) c;
+            parsed.add(method.getDesc());
+            if (method.code() != null) {
+                for (FileComponent i : method.code().code().getComponents()) {
+                    Instruction instruction = (Instruction) i;
+                    parsed.add(instruction.getPc() + ":" + instruction.getOpcode());
+                }
+            }
+        }
+        assertEquals(parsed, visited);
+    }
+
+    @Test
+    public void acceptMalformed() throws Exception {
+        byte[] classBytes = classWithCode(
+                0xaa, 0x00, 0x00, 0x00,
+                0, 0, 0, 16,
+                0, 0, 0, 4, 0xff, 0xff, 0xff, 0xff); // tableswitch, high < low
+        assertAcceptFails(classBytes, true);
+
+        byte[] negativeAttributeLength = classWithCode(0xb1);
+        negativeAttributeLength[78] = (byte) 0xff; // attribute_length of Code
+        assertAcceptFails(negativeAttributeLength, true);
+        assertAcceptFails(negativeAttributeLength, false);
+    }
+
+    private static void assertAcceptFails(byte[] classBytes, boolean walkMethods) {
+        try {
+            new ClassFileParser().accept(ByteBuffer.wrap(classBytes), new ClassFileVisitor() {
+
+                @Override
+                public boolean visitMethod(int accessFlags, String name, String descriptor) {
+                    return walkMethods;
+                }
+
+                @Override
+                public boolean visitAttribute(String name, int offset, int length) {
+                    return true;
+                }
+
+            });
+            fail();
+        } catch (ParseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void accessors() throws Exception {
+        ClassFile cf = loadClass(ByteCode.class);
+        assertEquals(cf.getUInt("major_version"), cf.majorVersion().getValue());
+        assertEquals(cf.getUInt("access_flags"), cf.accessFlags().getValue());
+        assertEquals(cf.getUInt("methods_count"), cf.methods().getComponents().size());
+        assertEquals(ByteCode.class.getName().replace('.', '/'), cf.getConstantPool().getUtf8String(
+                cf.getConstantPool().getClassInfo(cf.thisClass().getValue()).getNameIndex()));
+
+        for (FileComponent c : cf.methods().getComponents()) {
+            MethodInfo method = (MethodInfo) c;
+            assertEquals(method.getDesc(), cf.getConstantPool().getUtf8String(method.nameIndex().getValue()));
+            assertNotNull(method.code());
+            assertTrue(method.code().code().getComponents().size() > 0);
+        }
+    }
+
+    @Test
+    public void bytecodeCursor() throws Exception {
+        ClassFile cf = loadClass(ByteCode.class);
+        for (FileComponent c : cf.methods().getComponents()) {
+            CodeAttribute.Code code = ((MethodInfo) c).code().code();
+            BytecodeCursor cursor = code.cursor();
+            for (FileComponent ic : code.getComponents()) {
+                Instruction instruction = (Instruction) ic;
+                assertTrue(cursor.next());
+                assertEquals(instruction.getPc(), cursor.getPc());
+                assertEquals(instruction.getLength(), cursor.getLength());
+                if (instruction.getOpcode() != Opcode.wide) {
+                    assertEquals(instruction.getOpcode(), cursor.getOpcode());
+                }
+                if (instruction.getOpcode() == Opcode.tableswitch
+                        || instruction.getOpcode() == Opcode.lookupswitch) {
+                    List<FileComponent> offsets = instruction.getComponents();
+                    assertEquals(offsets.size() - 1, cursor.switchCaseCount());
+                    for (int i = 0; i < cursor.switchCaseCount(); i++) {
+                        assertEquals(String.valueOf(cursor.switchTarget(i)), offsets.get(i).getDesc());
+                    }
+                    assertEquals(String.valueOf(cursor.switchDefault()),
+                            offsets.get(offsets.size() - 1).getDesc());
+                }
+            }
+            assertFalse(cursor.next());
+        }
+    }
+
+    @Test
+    public void compactCode() throws Exception {
+        ClassFile cf = loadClass(ByteCode.class);
+        for (FileComponent c : cf.methods().getComponents()) {
+            CodeAttribute.Code code = ((MethodInfo) c).code().code();
+            int count = code.getInstructionCount();
+            List<FileComponent> instructions = code.getComponents();
+            assertEquals(count, instructions.size());
+            for (int i = 0; i < count; i++) {
+                Instruction instruction = (Instruction) instructions.get(i);
+                assertEquals(code.getPc(i), instruction.getPc());
+                assertEquals(code.getOffset() + code.getPc(i), instruction.getOffset());
+            }
+            assertSame(instructions.get(0), code.getComponents().get(0));
+        }
+    }
+
+    @Test
+    public void u2Array() throws Exception {
+        ClassFile cf = loadClass(SimpleClass.class);
+        U2Array interfaces = cf.interfaces();
+        assertEquals(2, interfaces.size());
+        assertEquals("java/lang/Runnable", cf.getConstantPool().getClassName(interfaces.getValue(0)));
+
+        List<FileComponent> entries = interfaces.getComponents();
+        assertEquals(2, entries.size());
+        assertEquals(interfaces.getValue(1), ((U2CpIndex) entries.get(1)).getValue());
+        assertEquals(interfaces.getOffset() + 2, entries.get(1).getOffset());
+        assertEquals("#1", entries.get(1).getName());
+    }
+
+    @Test
+    public void constantPoolIndexes() throws Exception {
+        ClassFile cf = loadClass(TEST_CONSTANT_POOL);
+        ConstantPool cp = cf.getConstantPool();
+
+        int memberRefs = 0;
+        int longs = 0;
+        for (int i = 1; i < cf.getUInt("constant_pool_count"); i++) {
+            ConstantInfo c = cp.getConstantInfo(i);
+            if (c instanceof ConstantFieldrefInfo) {
+                MemberRef ref = cp.getMemberRef(i);
+                assertSame(ref, cp.getMemberRef(i));
+                assertEquals(c.getDesc(), ref.owner + "." + ref.name);
+                memberRefs++;
+            } else if (c instanceof ConstantLongInfo || c instanceof ConstantDoubleInfo) {
+                longs++;
+                i++;
+            }
+        }
+        assertEquals(3, longs);
+        assertEquals(memberRefs, cp.getConstants(ConstantFieldrefInfo.class).size()
+                + cp.getConstants(ConstantMethodrefInfo.class).size()
+                + cp.getConstants(ConstantInterfaceMethodrefInfo.class).size());
+        assertSame(cp.getComponents(), cp.getComponents());
+    }
+
+    @Test
+    public void lazyAttributes() throws Exception {
+        for (Class<?> cls : new Class<?>[] {CodeAttr.class, AnnotatedClass.class, TypeAnnotatedClass.class}) {
+            byte[] classBytes = Files.readAllBytes(getClassFilePath(cls));
+            ClassFileParser lazyParser = new ClassFileParser();
+            lazyParser.setLazyAttributes(true);
+            ClassFile eager = new ClassFileParser().parse(classBytes);
+            ClassFile lazy = lazyParser.parse(classBytes);
+            assertEquals(dump(eager), dump(lazy));
+        }
+    }
+    
+    @Test
+    public void compactTree() throws Exception {
+        byte[] classBytes = Files.readAllBytes(getClassFilePath(CodeAttr.class));
+        ClassFile cf = new ClassFileParser().parse(classBytes);
+        for (boolean offHeap : new boolean[] {false, true}) {
+            ComponentArena.Node root = new ClassFileParser().parseCompact(ByteBuffer.wrap(classBytes), offHeap);
+            assertEquals(dump(cf), dump(root));
+            assertEquals("ClassFile", root.getKind());
+            ComponentArena.Node magic = (ComponentArena.Node) root.getComponents().get(0);
+            assertEquals(0xCAFEBABE, magic.getValue());
+            assertEquals(root.getLength(), magic.getParent().getLength());
+        }
+    }
+    
+    @Test
+    public void trustedMode() throws Exception {
+        ClassFileParser trustedParser = new ClassFileParser();
+        trustedParser.setTrusted(true);
+
+        List<Path> classFiles = listTestClassFiles();
+        assertTrue(classFiles.size() > 5);
+        for (Path classFile : classFiles) {
+            byte[] classBytes = Files.readAllBytes(classFile);
+            assertEquals(dump(new ClassFileParser().parse(classBytes)), dump(trustedParser.parse(classBytes)));
+
+            ClassSummary strict = new ClassFileParser().scan(classBytes);
+            ClassSummary trusted = trustedParser.scan(classBytes);
+            assertEquals(strict.thisClass, trusted.thisClass);
+            assertEquals(strict.methods.toString(), trusted.methods.toString());
+            assertEquals(strict.attributes, trusted.attributes);
+        }
+    }
+
+    @Test
+    public void concurrentParsing() throws Exception {
+        List<Path> classFiles = listTestClassFiles();
+        Map<Path, String> expected = new HashMap<>();
+        for (Path classFile : classFiles) {
+            expected.put(classFile, dump(new ClassFileParser().parse(Files.readAllBytes(classFile))));
+        }
+
+        // one parser and one symbol table shared by all threads
+        ClassFileParser parser = new ClassFileParser();
+        parser.setLazyAttributes(true);
+        parser.setSymbolTable(new SymbolTable());
+        // trees parsed once and read by all threads
+        Map<Path, ClassFile> shared = new HashMap<>();
+        for (Path classFile : classFiles) {
+            shared.put(classFile, parser.parse(Files.readAllBytes(classFile)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> {
+                    for (Path classFile : classFiles) {
+                        ClassFile cf = parser.parse(Files.readAllBytes(classFile));
+                        assertEquals(expected.get(classFile), dump(cf));
+                        assertEquals(expected.get(classFile), dump(shared.get(classFile)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(); // rethrows failures
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void limits() throws Exception {
+        byte[] classBytes = Files.readAllBytes(getClassFilePath(CodeAttr.class));
+        assertParseFails(classBytes, ParseLimits.builder().maxComponents(10).build());
+        assertParseFails(classBytes, ParseLimits.builder().maxDepth(3).build());
+        assertParseFails(classBytes, ParseLimits.builder().maxAttributeLength(4).build());
+        new ClassFileParser().parse(classBytes); // no limits
+
+        byte[] hugeCpCount = Arrays.copyOf(classBytes, 64);
+        hugeCpCount[8] = (byte) 0xff;
+        hugeCpCount[9] = (byte) 0xff;
+        assertParseFails(hugeCpCount, null);
+
+        byte[] malformedSwitch = classWithCode(
+                0xaa, 0x00, 0x00, 0x00,
+                0, 0, 0, 16,
+                0, 0, 0, 4, 0xff, 0xff, 0xff, 0xff);
+        assertParseFails(malformedSwitch, ParseLimits.builder()
+                .maxComponents(1_000_000).timeBudgetMillis(1000).build());
+    }
+
+    @Test
+    public void instructionsCountAgainstLimits() throws Exception {
+        int[] code = new int[1000];
+        code[code.length - 1] = 0xb1; // nop... return
+        ClassFileParser parser = new ClassFileParser();
+        parser.setLimits(ParseLimits.builder().maxComponents(500).build());
+        try {
+            parser.parse(classWithCode(code)); // instructions not created yet
+            fail();
+        } catch (ParseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void lazyPartsShareLimits() throws Exception {
+        byte[] classBytes = Files.readAllBytes(getClassFilePath(CodeAttr.class));
+
+        // fewest components which an eager parse needs
+        int low = 1;
+        int high = 1_000_000;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            ClassFileParser parser = new ClassFileParser();
+            parser.setLimits(ParseLimits.builder().maxComponents(mid).build());
+            try {
+                dump(parser.parse(classBytes));
+                high = mid;
+            } catch (ParseException e) {
+                low = mid + 1;
+            }
+        }
+
+        // a lazy parse reads fewer components up front,
+        // but its attribute bodies are charged to the same budget
+        ClassFileParser lazyParser = new ClassFileParser();
+        lazyParser.setLazyAttributes(true);
+        lazyParser.setLimits(ParseLimits.builder().maxComponents(low - 1).build());
+        ClassFile cf = lazyParser.parse(classBytes);
+        try {
+            dump(cf);
+            fail();
+        } catch (ParseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void malformedSwitch() throws Exception {
+        new ClassFileParser().parse(classWithCode(0xb1)); // return
+
+        // tableswitch with low 4 and high -1, its length used to be 0
+        byte[] classBytes = classWithCode(
+                0xaa, 0x00, 0x00, 0x00,
+                0, 0, 0, 16,
+                0, 0, 0, 4, 0xff, 0xff, 0xff, 0xff);
+        assertParseFails(classBytes, null);
+
+        // lookupswitch with npairs -1
+        assertParseFails(classWithCode(
+                0xab, 0x00, 0x00, 0x00,
+                0, 0, 0, 12,
+                0xff, 0xff, 0xff, 0xff), null);
+    }
+
+    // class T with one static method m()V, whose Code attribute has the code
+    private static byte[] classWithCode(int... code) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(52);
+        out.writeShort(8); // constant_pool_count
+        out.writeByte(1); out.writeUTF("T");                // #1
+        out.writeByte(7); out.writeShort(1);                // #2 Class T
+        out.writeByte(1); out.writeUTF("java/lang/Object"); // #3
+        out.writeByte(7); out.writeShort(3);                // #4 Class java/lang/Object
+        out.writeByte(1); out.writeUTF("m");                // #5
+        out.writeByte(1); out.writeUTF("()V");              // #6
+        out.writeByte(1); out.writeUTF("Code");             // #7
+        out.writeShort(0x0021); // access_flags
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0); // interfaces_count
+        out.writeShort(0); // fields_count
+        out.writeShort(1); // methods_count
+        out.writeShort(0x0009);
+        out.writeShort(5);
+        out.writeShort(6);
+        out.writeShort(1); // attributes_count
+        out.writeShort(7);
+        out.writeInt(12 + code.length);
+        out.writeShort(1); // max_stack
+        out.writeShort(0); // max_locals
+        out.writeInt(code.length);
+        for (int b : code) {
+            out.writeByte(b);
+        }
+        out.writeShort(0); // exception_table_length
+        out.writeShort(0); // attributes_count
+        out.writeShort(0); // attributes_count of the class
+        return bytes.toByteArray();
+    }
+
+    private static void assertParseFails(byte[] classBytes, ParseLimits limits) {
+        ClassFileParser parser = new ClassFileParser();
+        parser.setLimits(limits);
+        try {
+            dump(parser.parse(classBytes));
+            fail();
+        } catch (ParseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void attributeDispatch() throws Exception {
+        ClassFile cf = loadClass(ByteCode.class);
+        ConstantPool cp = cf.getConstantPool();
+        CodeAttribute codeAttr = ((MethodInfo) cf.methods().getComponents().get(0)).code();
+        int nameIndex = codeAttr.attributeNameIndex().getValue();
+        assertSame(cp.getAttributeSupplier(nameIndex), cp.getAttributeSupplier(nameIndex));
+        assertTrue(cp.getAttributeSupplier(nameIndex).get() instanceof CodeAttribute);
+        assertSame(cp.getAttributeName(nameIndex), cp.getAttributeName(nameIndex));
+        assertEquals("Code", cp.getAttributeName(nameIndex));
+
+        assertTrue(AttributeFactory.create("NestHost") instanceof NestHostAttribute);
+        assertTrue(AttributeFactory.create("Record") instanceof RecordAttribute);
+        assertTrue(AttributeFactory.create("NoSuchAttribute") instanceof UndefinedAttribute);
+        try {
+            AttributeFactory.register("ClassFileTest.Custom", NestMembersAttribute::new);
+            assertTrue(AttributeFactory.create("ClassFileTest.Custom") instanceof NestMembersAttribute);
+        } finally {
+            AttributeFactory.unregister("ClassFileTest.Custom");
+        }
+        assertTrue(AttributeFactory.create("ClassFileTest.Custom") instanceof UndefinedAttribute);
+    }
+
+    @Test
+    public void symbolTable() throws Exception {
+        SymbolTable symbols = new SymbolTable();
+        ClassFileParser parser = new ClassFileParser();
+        parser.setSymbolTable(symbols);
+        ClassFile cf1 = parser.parse(Files.readAllBytes(getClassFilePath(SimpleClass.class)));
+        ClassFile cf2 = parser.parse(Files.readAllBytes(getClassFilePath(CodeAttr.class)));
+
+        String obj1 = cf1.getConstantPool().getClassName(cf1.superClass().getValue());
+        String obj2 = cf2.getConstantPool().getClassName(cf2.superClass().getValue());
+        assertEquals("java/lang/Object", obj1);
+        assertSame(obj1, obj2);
+        assertSame(obj1, parser.scan(Files.readAllBytes(getClassFilePath(ByteCode.class))).superClass);
+
+        // labels are the same with or without symbol table
+        assertEquals(dump(loadClass(CodeAttr.class)), dump(cf2));
+    }
+    
+    private static String dump(FileComponent fc) {
+        StringBuilder buf = new StringBuilder();
+        dump(fc, "", buf);
+        return buf.toString();
+    }
+    
+    private static void dump(FileComponent fc, String indent, StringBuilder buf) {
+        buf.append(indent).append(fc).append(' ')
+                .append(fc.getOffset()).append('+').append(fc.getLength()).append('\n');
+        for (FileComponent c : fc.getComponents()) {
+            dump(c, indent + "  ", buf);
+        }
+    }
+    
+    private static List<Path> listTestClassFiles() throws Exception {
+        try (Stream<Path> files = Files.list(getClassFilePath(SimpleClass.class).getParent())) {
+            return files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+    }
+    
     private static ClassFile loadClass(Class<?> cls) throws Exception {
         String classFileName = cls.getName().replace('.', '/') + ".class";
         return loadClass(classFileName);
     }
     
-    private static ClassFile loadClass(String classFileName) throws Exception {
+    private static Path getClassFilePath(Class<?> cls) throws Exception {
+        String classFileName = cls.getName().replace('.', '/') + ".class";
+        return getClassFilePath(classFileName);
+    }
+    
+    private static Path getClassFilePath(String classFileName) throws Exception {
         ClassLoader cl = SimpleClass.class.getClassLoader();
-        Path classFilePath = Paths.get(cl.getResource(classFileName).toURI());
+        return Paths.get(cl.getResource(classFileName).toURI());
+    }
+    
+    private static ClassFile loadClass(String classFileName) throws Exception {
+        Path classFilePath = getClassFilePath(classFileName);
         byte[] classBytes = Files.readAllBytes(classFilePath);
         ClassFile cf = new ClassFileParser().parse(classBytes);
         return cf;